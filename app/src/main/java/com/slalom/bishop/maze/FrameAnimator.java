@@ -0,0 +1,84 @@
+package com.slalom.bishop.maze;
+
+import android.view.Choreographer;
+
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.android.schedulers.AndroidSchedulers;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Paces a stepping generator with the display's vsync. On every Choreographer frame it runs as many steps as
+ * the target rate allows, stopping early once the frame's time budget is spent, and then emits once so the
+ * UI is updated a single time per frame. Steps run on the main thread, so the generator and the view never
+ * touch the grid concurrently.
+ */
+public class FrameAnimator {
+    public static final float UNLIMITED_STEPS_PER_SECOND = Float.POSITIVE_INFINITY;
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+
+    private static final int STEPS_BETWEEN_CLOCK_CHECKS = 16;
+
+    public interface Stepper {
+        /**
+         * @return true while there are steps left
+         */
+        boolean step();
+    }
+
+    /**
+     * @return the total number of steps taken so far, once per frame, completing after the last step
+     */
+    public static Observable<Long> animate(Stepper stepper, float stepsPerSecond, long frameBudgetNanos) {
+        return Observable.<Long>create(subscriber -> {
+            Choreographer choreographer = Choreographer.getInstance();
+            Choreographer.FrameCallback callback = new Choreographer.FrameCallback() {
+                private long totalSteps;
+                private long lastFrameTimeNanos;
+                private double stepCredit = 1;
+
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    if (subscriber.isUnsubscribed()) {
+                        return;
+                    }
+                    if (stepsPerSecond == UNLIMITED_STEPS_PER_SECOND) {
+                        stepCredit = Double.POSITIVE_INFINITY;
+                    } else if (lastFrameTimeNanos != 0) {
+                        stepCredit += (frameTimeNanos - lastFrameTimeNanos) * (double) stepsPerSecond / TimeUnit.SECONDS.toNanos(1);
+                    }
+                    lastFrameTimeNanos = frameTimeNanos;
+
+                    boolean hasMoreSteps = runSteps(System.nanoTime() + frameBudgetNanos);
+                    subscriber.onNext(totalSteps);
+                    if (hasMoreSteps) {
+                        choreographer.postFrameCallback(this);
+                    } else {
+                        subscriber.onCompleted();
+                    }
+                }
+
+                private boolean runSteps(long deadlineNanos) {
+                    int steps = 0;
+                    while (stepCredit >= 1) {
+                        stepCredit--;
+                        totalSteps++;
+                        if (!stepper.step()) {
+                            return false;
+                        }
+                        if (++steps % STEPS_BETWEEN_CLOCK_CHECKS == 0 && System.nanoTime() >= deadlineNanos) {
+                            // Out of time: drop the backlog rather than letting it pile up across frames.
+                            stepCredit = Math.min(stepCredit, 1);
+                            break;
+                        }
+                    }
+                    return true;
+                }
+            };
+            subscriber.add(Subscriptions.create(() -> choreographer.removeFrameCallback(callback)));
+            choreographer.postFrameCallback(callback);
+        })
+        .subscribeOn(AndroidSchedulers.mainThread());
+    }
+}
@@ -2,13 +2,20 @@ package com.slalom.bishop.maze;
 
 import android.app.Activity;
 import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
 import android.widget.NumberPicker;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 
 import com.slalom.bishop.R;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
 import com.slalom.bishop.maze.MazeOptions.MazeType;
+import com.slalom.bishop.maze.solver.SolverStrategy;
 
+import java.util.Random;
+
+import butterknife.BindArray;
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import butterknife.OnClick;
@@ -18,11 +25,14 @@ public class MazeOptionsActivity extends Activity {
     @BindView(R.id.columns_picker) NumberPicker columnsPicker;
     @BindView(R.id.speed_picker) NumberPicker speedPicker;
     @BindView(R.id.algorithm_group) RadioGroup algorithmGroup;
-    @BindView(R.id.default_algorithm_button) RadioButton defaultAlgorithmButton;
+    @BindView(R.id.solver_group) RadioGroup solverGroup;
+    @BindView(R.id.default_solver_button) RadioButton defaultSolverButton;
+    @BindArray(R.array.maze_algorithm_names) String[] algorithmNames;
 
     private String[] rowsPickerValues = new String[] {"6", "12", "24", "48", "60"};
     private String[] columnsPickerValues = new String[] {"5", "10", "20", "40", "50"};
     private String[] speedPickerValues = new String[] {"1", "50", "100", "250", "500", "1000"};
+    private Random seeds = new Random();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,7 +55,15 @@ public class MazeOptionsActivity extends Activity {
         speedPicker.setMaxValue(speedPickerValues.length - 1);
         speedPicker.setDisplayedValues(speedPickerValues);
 
-        algorithmGroup.check(defaultAlgorithmButton.getId());
+        LayoutInflater inflater = getLayoutInflater();
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            RadioButton algorithmButton = (RadioButton) inflater.inflate(R.layout.maze_algorithm_button, algorithmGroup, false);
+            algorithmButton.setId(View.generateViewId());
+            algorithmButton.setText(algorithmNames[algorithm.ordinal()]);
+            algorithmGroup.addView(algorithmButton);
+        }
+        algorithmGroup.check(algorithmGroup.getChildAt(0).getId());
+        solverGroup.check(defaultSolverButton.getId());
     }
 
     private MazeOptions getOptions() {
@@ -53,14 +71,18 @@ public class MazeOptionsActivity extends Activity {
         options.setRows(Integer.valueOf(rowsPickerValues[rowsPicker.getValue()]));
         options.setColumns(Integer.valueOf(columnsPickerValues[columnsPicker.getValue()]));
         options.setSpeed(Integer.valueOf(speedPickerValues[speedPicker.getValue()]));
+        options.setSeed(seeds.nextLong());
 
         int selectedAlgorithmButton = algorithmGroup.indexOfChild(ButterKnife.findById(algorithmGroup, algorithmGroup.getCheckedRadioButtonId()));
-        switch (selectedAlgorithmButton) {
-            case 0: options.setAlgorithm(MazeOptions.MazeAlgorithm.BACKTRACK);
+        options.setAlgorithm(MazeAlgorithm.values()[selectedAlgorithmButton]);
+
+        int selectedSolverButton = solverGroup.indexOfChild(ButterKnife.findById(solverGroup, solverGroup.getCheckedRadioButtonId()));
+        switch (selectedSolverButton) {
+            case 0: options.setSolver(SolverStrategy.BREADTH_FIRST);
                 break;
-            case 1: options.setAlgorithm(MazeOptions.MazeAlgorithm.KRUSKAL);
+            case 1: options.setSolver(SolverStrategy.A_STAR);
                 break;
-            case 2: options.setAlgorithm(MazeOptions.MazeAlgorithm.PRIM);
+            case 2: options.setSolver(SolverStrategy.BIDIRECTIONAL);
                 break;
         }
 
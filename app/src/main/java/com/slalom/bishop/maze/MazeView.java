@@ -1,24 +1,95 @@
 package com.slalom.bishop.maze;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
 import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.support.v4.content.ContextCompat;
 import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.View;
 
-import com.annimon.stream.Stream;
+import com.slalom.bishop.R;
+import com.slalom.bishop.maze.metrics.FrameStats;
+import com.slalom.bishop.maze.solver.DistanceField;
+import com.slalom.bishop.maze.solver.MazeSolution;
 
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.LEFT;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Draws the maze in two layers. The static layer, visited cells and closed walls, lives in an offscreen bitmap
+ * that is fully rebuilt only when the size or the maze changes; while generating, {@link #refresh()} repaints
+ * just the cells whose walls or visited state changed and invalidates only their rectangles. The transient
+ * layer, exploring and backtracking highlights, the current wall and the solution path, is drawn over the
+ * bitmap on every frame. Wall lines go through preallocated buffers, so drawing allocates nothing.
+ * An optional {@link #setHeatmap heatmap} of a {@link DistanceField} is colored once into a bitmap with one pixel
+ * per cell and scaled under the static layer, so showing it costs a single bitmap draw per frame.
+ * While {@link #setFrameStatsShown frame stats} are shown, every draw pass and every display frame is timed into
+ * {@link FrameStats}, and a summary is drawn in the bottom left corner. The summary text is rebuilt only every
+ * {@value #FRAME_STATS_REFRESH_DRAWS} draws so that formatting it does not add to the frames being measured.
+ */
 public class MazeView extends View {
+    private static final int CHANGE_CAPACITY = 256;
+    private static final int HIGHLIGHTS = EXPLORING | BACKTRACKING;
+    private static final int HEATMAP_COLORS = 256;
+    private static final float HEATMAP_COLD_HUE = 180;
+    private static final int FRAME_STATS_REFRESH_DRAWS = 30;
+    private static final float FRAME_STATS_TEXT_SIZE_SP = 11;
+
     private int rows, columns;
-    private float cellHeight, cellWidth;
+    private MazeGeometry geometry = new MazeGeometry();
     private Paint closedWallPaint = new Paint();
-    private Paint openWallPaint = new Paint();
     private Paint currentWallPaint = new Paint();
     private Paint cellPaint = new Paint();
+    private Paint clearPaint = new Paint();
     private Paint pathPaint = new Paint();
     private Maze maze;
+    private MazeSolution pathSolution;
+    private float[] pathLines;
+    private Bitmap mazeBitmap;
+    private Canvas mazeCanvas;
+    private MazeGrid trackedGrid;
+    private CellChanges changes;
+    private int[] changedCells = new int[CHANGE_CAPACITY];
+    private byte[] drawnCells;
+    private IndexedCellSet highlightedCells;
+    private RectF cellRect = new RectF();
+    private float[] wallLines;
+    private float[] cellWallLines = new float[16];
+    private float[] currentWallLine = new float[4];
+    private int drawnCurrentWall = NO_WALL;
+    private Bitmap heatmapBitmap;
+    private Paint heatmapPaint = new Paint();
+    private RectF heatmapRect = new RectF();
+    private int[] heatmapPalette;
+    private FrameStats frameStats = new FrameStats();
+    private boolean isFrameStatsShown;
+    private String[] frameStatsLines = new String[0];
+    private long frameStatsLinesDrawCount;
+    private Paint frameStatsTextPaint = new Paint();
+    private Paint frameStatsBackgroundPaint = new Paint();
+    private Choreographer.FrameCallback frameStatsCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (isFrameStatsShown) {
+                frameStats.recordFrame(frameTimeNanos);
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    };
 
     public MazeView(Context context) {
         this(context, null);
@@ -33,66 +104,340 @@ public class MazeView extends View {
         closedWallPaint.setStyle(Paint.Style.STROKE);
         closedWallPaint.setColor(Color.BLACK);
         closedWallPaint.setStrokeWidth(10);
-        openWallPaint.setStyle(Paint.Style.STROKE);
-        openWallPaint.setColor(Color.TRANSPARENT);
-        openWallPaint.setStrokeWidth(10);
         currentWallPaint.setStyle(Paint.Style.STROKE);
         currentWallPaint.setStrokeWidth(10);
         cellPaint.setStyle(Paint.Style.FILL);
         cellPaint.setColor(Color.WHITE);
+        clearPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
         pathPaint.setStyle(Paint.Style.STROKE);
         pathPaint.setStrokeWidth(20);
+        pathPaint.setStrokeCap(Paint.Cap.ROUND);
         pathPaint.setColor(Color.BLUE);
+        heatmapPaint.setFilterBitmap(false);
+        frameStatsTextPaint.setColor(Color.WHITE);
+        frameStatsTextPaint.setTypeface(Typeface.MONOSPACE);
+        frameStatsTextPaint.setTextSize(FRAME_STATS_TEXT_SIZE_SP * getResources().getDisplayMetrics().scaledDensity);
+        frameStatsBackgroundPaint.setColor(ContextCompat.getColor(getContext(), R.color.metrics_overlay));
     }
 
+    /**
+     * Shows {@code maze}, watching its grid with a change tracker owned by this view. The grid may be shared
+     * through the {@link MazeCache}, so the tracker is only added to it and removed again when the view moves on.
+     */
     public void setMaze(Maze maze) {
         this.maze = maze;
         this.rows = maze.getRows();
         this.columns = maze.getColumns();
+        MazeGrid grid = maze.getGrid();
+        if (grid != null) {
+            wallLines = new float[MazeGeometry.getWallLinesCapacity(rows, columns)];
+            drawnCells = new byte[grid.getCellCount()];
+            highlightedCells = new IndexedCellSet(grid.getCellCount());
+        }
+        trackGrid(grid);
+        setHeatmap(null);
         calculateDimensions();
     }
 
+    private void trackGrid(MazeGrid grid) {
+        if (trackedGrid != null) {
+            trackedGrid.removeChangeTracker(changes);
+        }
+        trackedGrid = grid;
+        if (grid != null) {
+            if (changes == null) {
+                changes = new CellChanges(CHANGE_CAPACITY);
+            }
+            grid.addChangeTracker(changes);
+        }
+    }
+
+    /**
+     * Shades every cell by its distance in {@code field}, from cyan at the source to red at the farthest cell,
+     * leaving unreachable cells unshaded. The colors are computed here once; a null field removes the heatmap.
+     */
+    public void setHeatmap(DistanceField field) {
+        if (heatmapBitmap != null) {
+            heatmapBitmap.recycle();
+            heatmapBitmap = null;
+        }
+        if (field != null && field.getCellCount() == rows * columns) {
+            int[] palette = getHeatmapPalette();
+            int[] pixels = new int[field.getCellCount()];
+            float scale = field.getMaxDistance() > 0 ? (float) (HEATMAP_COLORS - 1) / field.getMaxDistance() : 0;
+            for (int cell = 0; cell < pixels.length; cell++) {
+                int distance = field.getDistance(cell);
+                pixels[cell] = distance == DistanceField.UNREACHABLE ? Color.TRANSPARENT : palette[(int) (distance * scale)];
+            }
+            heatmapBitmap = Bitmap.createBitmap(pixels, columns, rows, Bitmap.Config.ARGB_8888);
+        }
+        if (changes != null) {
+            changes.addAll();
+        }
+        invalidate();
+    }
+
+    private int[] getHeatmapPalette() {
+        if (heatmapPalette == null) {
+            heatmapPalette = new int[HEATMAP_COLORS];
+            float[] hsv = {0, 1, 1};
+            for (int i = 0; i < HEATMAP_COLORS; i++) {
+                hsv[0] = HEATMAP_COLD_HUE * (HEATMAP_COLORS - 1 - i) / (HEATMAP_COLORS - 1);
+                heatmapPalette[i] = Color.HSVToColor(hsv);
+            }
+        }
+        return heatmapPalette;
+    }
+
+    /**
+     * Starts timing draws and display frames from scratch and shows the summary, or stops timing and hides it.
+     * The recorded {@link #getFrameStats() stats} are kept after stopping so they can be exported.
+     */
+    public void setFrameStatsShown(boolean shown) {
+        if (shown == isFrameStatsShown) {
+            return;
+        }
+        isFrameStatsShown = shown;
+        Choreographer.getInstance().removeFrameCallback(frameStatsCallback);
+        if (shown) {
+            frameStats.reset();
+            frameStatsLines = new String[0];
+            Choreographer.getInstance().postFrameCallback(frameStatsCallback);
+        }
+        invalidate();
+    }
+
+    public boolean isFrameStatsShown() {
+        return isFrameStatsShown;
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Applies the cells changed since the last frame and invalidates only their rectangles.
+     */
+    public void refresh() {
+        if (mazeCanvas == null || changes == null) {
+            invalidate();
+            return;
+        }
+        MazeGrid grid = maze.getGrid();
+        int changedCount = changes.drainTo(changedCells);
+        if (changedCount == CellChanges.ALL_CELLS) {
+            drawAllCells(grid);
+            invalidate();
+        } else {
+            for (int i = 0; i < changedCount; i++) {
+                if (updateCell(grid, changedCells[i])) {
+                    invalidateCell(grid, changedCells[i]);
+                }
+            }
+        }
+
+        int currentWall = maze.getCurrentWall();
+        if (currentWall != drawnCurrentWall) {
+            invalidateWall(grid, drawnCurrentWall);
+            invalidateWall(grid, currentWall);
+        }
+    }
+
     private void calculateDimensions() {
         if (rows > 0 && columns > 0) {
-            cellHeight = getHeight() / (float) rows;
-            cellWidth = getWidth() / (float) columns;
+            geometry.setDimensions(getWidth(), getHeight(), rows, columns);
+            heatmapRect.set(0, 0, columns * geometry.getCellWidth(), rows * geometry.getCellHeight());
+        }
+        if (getWidth() > 0 && getHeight() > 0) {
+            if (mazeBitmap != null) {
+                mazeBitmap.recycle();
+            }
+            mazeBitmap = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+            mazeCanvas = new Canvas(mazeBitmap);
         }
+        if (changes != null) {
+            changes.addAll();
+        }
+        pathSolution = null;
         invalidate();
     }
 
-    private RectF getCellCoordinates(int row, int column) {
-        return new RectF(column * cellWidth, row * cellHeight, (column + 1) * cellWidth, (row + 1) * cellHeight);
+    private void setCellRect(MazeGrid grid, int cell) {
+        float cellWidth = geometry.getCellWidth();
+        float cellHeight = geometry.getCellHeight();
+        int row = grid.getRow(cell);
+        int column = grid.getColumn(cell);
+        cellRect.set(column * cellWidth, row * cellHeight, (column + 1) * cellWidth, (row + 1) * cellHeight);
+    }
+
+    private void invalidateCell(MazeGrid grid, int cell) {
+        setCellRect(grid, cell);
+        int halfStroke = (int) Math.ceil(closedWallPaint.getStrokeWidth() / 2);
+        invalidate((int) cellRect.left - halfStroke, (int) cellRect.top - halfStroke,
+                (int) Math.ceil(cellRect.right) + halfStroke, (int) Math.ceil(cellRect.bottom) + halfStroke);
+    }
+
+    private void invalidateWall(MazeGrid grid, int wall) {
+        if (wall != NO_WALL) {
+            invalidateCell(grid, MazeGrid.getWallCell(wall));
+        }
+    }
+
+    /**
+     * Applies pending changes without invalidating, for frames drawn before {@link #refresh()}.
+     */
+    private void drawPendingChanges(MazeGrid grid) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        int changedCount = changes.drainTo(changedCells);
+        if (changedCount == CellChanges.ALL_CELLS) {
+            drawAllCells(grid);
+        } else {
+            for (int i = 0; i < changedCount; i++) {
+                updateCell(grid, changedCells[i]);
+            }
+        }
     }
 
-    private float[] getWallCoordinates(int row, int column, MazeDirection direction) {
-        switch (direction) {
-            case TOP: return new float[] { column * cellWidth, row * cellHeight, (column + 1) * cellWidth, row * cellHeight };
-            case BOTTOM: return new float[] { column * cellWidth, (row + 1) * cellHeight, (column + 1) * cellWidth, (row + 1) * cellHeight };
-            case LEFT: return new float[] { column * cellWidth, row * cellHeight, column * cellWidth, (row + 1) * cellHeight };
-            case RIGHT: return new float[] { (column + 1) * cellWidth, row * cellHeight, (column + 1) * cellWidth, (row + 1) * cellHeight };
-            default: return new float[] {};
+    /**
+     * Rebuilds the static layer and the set of highlighted cells from scratch.
+     */
+    private void drawAllCells(MazeGrid grid) {
+        mazeBitmap.eraseColor(Color.TRANSPARENT);
+        highlightedCells.clear();
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            drawnCells[cell] = getStaticState(grid, cell);
+            if (heatmapBitmap == null && grid.hasFlag(cell, VISITED)) {
+                fillCell(mazeCanvas, grid, cell, Color.WHITE);
+            }
+            if (grid.hasFlag(cell, HIGHLIGHTS)) {
+                highlightedCells.add(cell);
+            }
         }
+        int lineCount = geometry.putClosedWallLines(grid, wallLines);
+        mazeCanvas.drawLines(wallLines, 0, lineCount, closedWallPaint);
     }
 
-    private void drawWalls(Canvas canvas, MazeCell cell) {
-        int row = cell.getRow();
-        int column = cell.getColumn();
+    /**
+     * Tracks the cell's highlight and repaints it in the static layer if its walls or visited state changed.
+     *
+     * @return true if the cell looks different
+     */
+    private boolean updateCell(MazeGrid grid, int cell) {
+        boolean isHighlighted = grid.hasFlag(cell, HIGHLIGHTS);
+        boolean highlightChanged = isHighlighted ? highlightedCells.add(cell) : highlightedCells.remove(cell);
 
-        canvas.drawLines(getWallCoordinates(row, column, MazeDirection.TOP), cell.hasTopWall() ? closedWallPaint : openWallPaint);
-        canvas.drawLines(getWallCoordinates(row, column, MazeDirection.BOTTOM), cell.hasBottomWall() ? closedWallPaint : openWallPaint);
-        canvas.drawLines(getWallCoordinates(row, column, MazeDirection.LEFT), cell.hasLeftWall() ? closedWallPaint : openWallPaint);
-        canvas.drawLines(getWallCoordinates(row, column, MazeDirection.RIGHT), cell.hasRightWall() ? closedWallPaint : openWallPaint);
+        byte staticState = getStaticState(grid, cell);
+        if (staticState == drawnCells[cell]) {
+            return highlightChanged || isHighlighted;
+        }
+        drawnCells[cell] = staticState;
 
-        MazeWall currentWall = cell.getCurrentWall();
-        if (currentWall != null) {
-            currentWallPaint.setColor(currentWall.isVisible() ? Color.RED : Color.GREEN);
-            canvas.drawLines(getWallCoordinates(currentWall.getRow(), currentWall.getColumn(), currentWall.getDirection()),  currentWallPaint);
+        setCellRect(grid, cell);
+        mazeCanvas.save();
+        mazeCanvas.clipRect(cellRect);
+        mazeCanvas.drawRect(cellRect, clearPaint);
+        if (heatmapBitmap == null && grid.hasFlag(cell, VISITED)) {
+            fillCell(mazeCanvas, grid, cell, Color.WHITE);
         }
+        int lineCount = geometry.putCellWallLines(grid, cell, cellWallLines, 0);
+        mazeCanvas.drawLines(cellWallLines, 0, lineCount, closedWallPaint);
+        mazeCanvas.restore();
+        return true;
     }
 
-    private void drawCell(Canvas canvas, MazeCell cell, int color) {
+    /**
+     * @return the cell's four walls and visited flag, everything the static layer shows of it
+     */
+    private static byte getStaticState(MazeGrid grid, int cell) {
+        int state = grid.hasFlag(cell, VISITED) ? 1 << 4 : 0;
+        if (grid.hasWall(cell, TOP)) state |= 1 << TOP;
+        if (grid.hasWall(cell, BOTTOM)) state |= 1 << BOTTOM;
+        if (grid.hasWall(cell, LEFT)) state |= 1 << LEFT;
+        if (grid.hasWall(cell, RIGHT)) state |= 1 << RIGHT;
+        return (byte) state;
+    }
+
+    private void fillCell(Canvas canvas, MazeGrid grid, int cell, int color) {
+        setCellRect(grid, cell);
         cellPaint.setColor(color);
-        canvas.drawRect(getCellCoordinates(cell.getRow(), cell.getColumn()), cellPaint);
+        canvas.drawRect(cellRect, cellPaint);
+    }
+
+    /**
+     * Fills highlighted cells inside their walls so the static layer's wall strokes stay visible.
+     */
+    private void drawHighlights(Canvas canvas, MazeGrid grid) {
+        float halfStroke = closedWallPaint.getStrokeWidth() / 2;
+        for (int i = 0; i < highlightedCells.size(); i++) {
+            int cell = highlightedCells.get(i);
+            setCellRect(grid, cell);
+            cellRect.inset(halfStroke, halfStroke);
+            cellPaint.setColor(grid.hasFlag(cell, BACKTRACKING) ? Color.RED : Color.GREEN);
+            canvas.drawRect(cellRect, cellPaint);
+        }
+    }
+
+    private void drawCurrentWall(Canvas canvas, MazeGrid grid, int currentWall) {
+        int cell = MazeGrid.getWallCell(currentWall);
+        int direction = MazeGrid.getWallDirection(currentWall);
+        currentWallPaint.setColor(grid.hasWall(cell, direction) ? Color.RED : Color.GREEN);
+        geometry.putWallLine(grid.getRow(cell), grid.getColumn(cell), direction, currentWallLine, 0);
+        canvas.drawLines(currentWallLine, currentWallPaint);
+    }
+
+    private void drawSolution(Canvas canvas, MazeGrid grid, MazeSolution solution) {
+        if (solution != pathSolution) {
+            pathSolution = solution;
+            pathLines = geometry.getPathLines(grid, solution.getPath());
+        }
+        canvas.drawLines(pathLines, pathPaint);
+    }
+
+    /**
+     * Draws the frame stats summary, reformatting it only every {@value #FRAME_STATS_REFRESH_DRAWS} draws.
+     */
+    private void drawFrameStats(Canvas canvas) {
+        long drawCount = frameStats.getDrawCount();
+        if (frameStatsLines.length == 0 || drawCount - frameStatsLinesDrawCount >= FRAME_STATS_REFRESH_DRAWS) {
+            frameStatsLines = frameStats.toString().split("\n");
+            frameStatsLinesDrawCount = drawCount;
+        }
+        float lineHeight = frameStatsTextPaint.getFontSpacing();
+        float padding = lineHeight / 2;
+        float top = getHeight() - frameStatsLines.length * lineHeight - 2 * padding;
+        float width = 0;
+        for (String line : frameStatsLines) {
+            width = Math.max(width, frameStatsTextPaint.measureText(line));
+        }
+        canvas.drawRect(0, top, width + 2 * padding, getHeight(), frameStatsBackgroundPaint);
+        for (int i = 0; i < frameStatsLines.length; i++) {
+            canvas.drawText(frameStatsLines[i], padding, top + padding + (i + 1) * lineHeight
+                    - frameStatsTextPaint.descent(), frameStatsTextPaint);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (maze != null) {
+            trackGrid(maze.getGrid());
+        }
+        Display display = getDisplay();
+        if (display != null && display.getRefreshRate() > 0) {
+            frameStats.setFrameIntervalNanos((long) (1e9 / display.getRefreshRate()));
+        }
+        if (isFrameStatsShown) {
+            Choreographer.getInstance().postFrameCallback(frameStatsCallback);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        Choreographer.getInstance().removeFrameCallback(frameStatsCallback);
+        trackGrid(null);
+        super.onDetachedFromWindow();
     }
 
     @Override
@@ -103,19 +448,30 @@ public class MazeView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
-        if (rows > 0 && columns > 0) {
-            Stream.of(maze.getCells()).forEach(cell -> {
-                if (!cell.isModifiable()) {
-                    drawCell(canvas, cell, Color.WHITE);
-                }
-                if (cell.isExploring()) {
-                    drawCell(canvas, cell, maze.getStepsToSolution() > 0 ? Color.YELLOW : Color.GREEN);
-                }
-                if (cell.isBacktracking()) {
-                    drawCell(canvas, cell, Color.RED);
-                }
-                drawWalls(canvas, cell);
-            });
+        long drawStartNanos = System.nanoTime();
+        if (rows > 0 && columns > 0 && mazeBitmap != null) {
+            MazeGrid grid = maze.getGrid();
+            drawPendingChanges(grid);
+            if (heatmapBitmap != null) {
+                canvas.drawBitmap(heatmapBitmap, null, heatmapRect, heatmapPaint);
+            }
+            canvas.drawBitmap(mazeBitmap, 0, 0, null);
+            drawHighlights(canvas, grid);
+
+            int currentWall = maze.getCurrentWall();
+            drawnCurrentWall = currentWall;
+            if (currentWall != NO_WALL) {
+                drawCurrentWall(canvas, grid, currentWall);
+            }
+
+            MazeSolution solution = maze.getSolution();
+            if (solution != null && solution.hasPath()) {
+                drawSolution(canvas, grid, solution);
+            }
+        }
+        if (isFrameStatsShown) {
+            frameStats.recordDraw(System.nanoTime() - drawStartNanos);
+            drawFrameStats(canvas);
         }
     }
-}
\ No newline at end of file
+}
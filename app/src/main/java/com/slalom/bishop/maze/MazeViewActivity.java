@@ -4,37 +4,54 @@ import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.format.Formatter;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
+import android.widget.SeekBar;
 import android.widget.TextView;
 
 import com.jakewharton.rxbinding.view.RxView;
+import com.jakewharton.rxbinding.widget.RxSeekBar;
 import com.slalom.bishop.R;
+import com.slalom.bishop.maze.metrics.FrameStats;
+import com.slalom.bishop.maze.metrics.RunMetrics;
 
+import butterknife.BindArray;
 import butterknife.BindString;
 import butterknife.BindView;
 import butterknife.ButterKnife;
+import rx.Subscription;
 import rx.subscriptions.CompositeSubscription;
 
 public class MazeViewActivity extends Activity {
     @BindView(R.id.algorithm_view) TextView algorithmView;
     @BindView(R.id.maze_view) MazeView mazeView;
     @BindView(R.id.info_view) TextView infoView;
+    @BindView(R.id.metrics_view) TextView metricsView;
     @BindView(R.id.solve_button) Button solveButton;
-    @BindString(R.string.maze_algorithm_backtrack) String backtrackAlgorithmText;
-    @BindString(R.string.maze_algorithm_kruskal) String kruskalAlgorithmText;
-    @BindString(R.string.maze_algorithm_prim) String primAlgorithmText;
-    @BindString(R.string.maze_backtrack_info_format) String backtrackInfoFormat;
-    @BindString(R.string.maze_kruskal_info_format) String kruskalInfoFormat;
-    @BindString(R.string.maze_prim_info_format) String primInfoFormat;
+    @BindView(R.id.replay_button) Button replayButton;
+    @BindView(R.id.replay_seek_bar) SeekBar replaySeekBar;
+    @BindArray(R.array.maze_algorithm_names) String[] algorithmNames;
+    @BindArray(R.array.maze_algorithm_progress_formats) String[] algorithmProgressFormats;
+    @BindString(R.string.maze_generate_info_format) String generateInfoFormat;
+    @BindString(R.string.maze_cached_info_format) String cachedInfoFormat;
     @BindString(R.string.maze_solve_info_format) String solveInfoFormat;
     @BindString(R.string.maze_solve_error) String solveErrorText;
+    @BindString(R.string.maze_replay_info_format) String replayInfoFormat;
+    @BindString(R.string.maze_metrics_format) String metricsFormat;
+    @BindString(R.string.maze_metrics_allocation_unknown) String allocationUnknownText;
+    @BindString(R.string.maze_metrics_empty) String metricsEmptyText;
+    @BindString(R.string.maze_frame_stats_subject_format) String frameStatsSubjectFormat;
+    @BindString(R.string.maze_frame_stats_export_title) String frameStatsExportTitle;
 
     private static final String MAZE_OPTIONS = "MAZE_OPTIONS";
 
     private Maze maze;
     private MazeOptions options;
     private CompositeSubscription subscriptions = new CompositeSubscription();
+    private MazeReplay replay;
+    private Subscription replayPlayback;
 
     public static Intent buildIntent(Context context, MazeOptions options) {
         Intent intent = new Intent(context, MazeViewActivity.class);
@@ -53,6 +70,9 @@ public class MazeViewActivity extends Activity {
         configureAlgorithmView();
         configureMazeView();
         configureSolveButton();
+        configureReplayControls();
+        configureMetricsOverlay();
+        configureFrameStats();
     }
 
     @Override
@@ -62,68 +82,169 @@ public class MazeViewActivity extends Activity {
     }
 
     private void configureAlgorithmView() {
-        switch (options.getAlgorithm()) {
-            case BACKTRACK: algorithmView.setText(backtrackAlgorithmText);
-                break;
-            case KRUSKAL: algorithmView.setText(kruskalAlgorithmText);
-                break;
-            case PRIM: algorithmView.setText(primAlgorithmText);
-                break;
-        }
+        algorithmView.setText(algorithmNames[options.getAlgorithm().ordinal()]);
     }
 
     private void configureMazeView() {
         maze = new Maze(options);
-        mazeView.setMaze(maze);
 
+        if (maze.isCached()) {
+            mazeView.setMaze(maze);
+            infoView.setText(String.format(cachedInfoFormat, maze.getGrid().getCellCount()));
+            solveButton.setVisibility(View.VISIBLE);
+            return;
+        }
+
+        String progressFormat = algorithmProgressFormats[options.getAlgorithm().ordinal()];
         switch (options.getType()) {
             case ANIMATE:
-                switch (options.getAlgorithm()) {
-                    case BACKTRACK: subscriptions.add(maze.animateViaRecursiveBacktrack()
-                            .subscribe(result -> {
-                                mazeView.invalidate();
-                                infoView.setText(String.format(backtrackInfoFormat, result));
-                            }, Throwable::printStackTrace, () -> solveButton.setVisibility(View.VISIBLE)));
-                        break;
-                    case KRUSKAL: subscriptions.add(maze.animateViaKruskalsAlgorithm()
-                            .subscribe(result -> {
-                                mazeView.invalidate();
-                                infoView.setText(String.format(kruskalInfoFormat, result));
-                            }, Throwable::printStackTrace, () -> solveButton.setVisibility(View.VISIBLE)));
-                        break;
-                    case PRIM: subscriptions.add(maze.animateViaPrimsAlgorithm()
-                            .subscribe(result -> {
-                                mazeView.invalidate();
-                                infoView.setText(String.format(primInfoFormat, result));
-                            }, Throwable::printStackTrace, () -> solveButton.setVisibility(View.VISIBLE)));
-                        break;
-                }
+                mazeView.setMaze(maze);
+                subscriptions.add(maze.animateGeneration()
+                        .subscribe(progress -> {
+                            mazeView.refresh();
+                            infoView.setText(String.format(progressFormat, progress));
+                        }, Throwable::printStackTrace, this::onMazeFinished));
                 break;
             case GENERATE:
-                switch (options.getAlgorithm()) {
-                    case BACKTRACK: maze.generateViaRecursiveBacktrack();
-                        break;
-                    case KRUSKAL: maze.generateViaKruskalsAlgorithm();
-                        break;
-                    case PRIM: maze.generateViaPrimsAlgorithm();
-                        break;
-                }
-                solveButton.setVisibility(View.VISIBLE);
+                // The grid is written on a computation thread, so the view only gets the maze once it is finished.
+                subscriptions.add(maze.generate()
+                        .subscribe(progress -> infoView.setText(String.format(progressFormat, progress)),
+                                Throwable::printStackTrace, this::onMazeGenerated));
                 break;
         }
     }
 
+    private void onMazeGenerated() {
+        mazeView.setMaze(maze);
+        long generationMillis = Math.round(maze.getGenerationMetrics().getElapsedMillis());
+        infoView.setText(String.format(generateInfoFormat, maze.getGrid().getCellCount(), generationMillis));
+        onMazeFinished();
+    }
+
+    private void onMazeFinished() {
+        mazeView.refresh();
+        showMetrics();
+        solveButton.setVisibility(View.VISIBLE);
+        if (maze.getEventLog() != null) {
+            replayButton.setVisibility(View.VISIBLE);
+        }
+    }
+
     private void configureSolveButton() {
         subscriptions.add(RxView.clicks(solveButton).subscribe(clicked -> {
             solveButton.setVisibility(View.INVISIBLE);
 
-            subscriptions.add(maze.solveViaRecursiveBacktrack()
-                    .subscribe(result -> {
-                        mazeView.invalidate();
-                        int stepsToBacktrackSolution = (int) result;
-                        String solveMessage = stepsToBacktrackSolution > 0 ? String.format(solveInfoFormat, stepsToBacktrackSolution) : solveErrorText;
+            subscriptions.add(maze.solve(options.getSolver())
+                    .subscribe(solution -> {
+                        mazeView.setHeatmap(maze.getDistanceField());
+                        String solveMessage = solution.hasPath()
+                                ? String.format(solveInfoFormat, solution.getLength(), solution.getVisitedCells())
+                                : solveErrorText;
                         infoView.setText(solveMessage);
+                        showMetrics();
                     }, Throwable::printStackTrace));
         }));
     }
-}
\ No newline at end of file
+
+    private void configureReplayControls() {
+        subscriptions.add(RxView.clicks(replayButton).subscribe(clicked -> {
+            if (replay == null) {
+                replay = maze.startReplay();
+                mazeView.setMaze(maze);
+                replaySeekBar.setMax(replay.getLength());
+                replaySeekBar.setVisibility(View.VISIBLE);
+            }
+            if (replay.isFinished()) {
+                replay.seek(0);
+            }
+            playReplay();
+        }));
+
+        subscriptions.add(RxSeekBar.userChanges(replaySeekBar).subscribe(position -> {
+            if (replay != null) {
+                stopReplay();
+                replay.seek(position);
+                showReplayPosition();
+            }
+        }));
+    }
+
+    private void playReplay() {
+        stopReplay();
+        replayPlayback = maze.playReplay(replay)
+                .subscribe(steps -> {
+                    replaySeekBar.setProgress(replay.getPosition());
+                    showReplayPosition();
+                }, Throwable::printStackTrace);
+        subscriptions.add(replayPlayback);
+    }
+
+    private void stopReplay() {
+        if (replayPlayback != null) {
+            subscriptions.remove(replayPlayback);
+            replayPlayback = null;
+        }
+    }
+
+    /**
+     * Tapping the algorithm name toggles the metrics overlay over the maze.
+     */
+    private void configureMetricsOverlay() {
+        subscriptions.add(RxView.clicks(algorithmView).subscribe(clicked -> {
+            boolean isShown = metricsView.getVisibility() == View.VISIBLE;
+            metricsView.setVisibility(isShown ? View.GONE : View.VISIBLE);
+            showMetrics();
+        }));
+    }
+
+    /**
+     * Long-pressing the maze starts timing its frames with an overlay; long-pressing again stops and exports the report.
+     */
+    private void configureFrameStats() {
+        subscriptions.add(RxView.longClicks(mazeView).subscribe(longClicked -> {
+            boolean wasShown = mazeView.isFrameStatsShown();
+            mazeView.setFrameStatsShown(!wasShown);
+            if (wasShown) {
+                exportFrameStats(mazeView.getFrameStats());
+            }
+        }));
+    }
+
+    private void exportFrameStats(FrameStats frameStats) {
+        String report = frameStats + "\n\n" + frameStats.toJson();
+        Log.i(getClass().getSimpleName(), report);
+        String subject = String.format(frameStatsSubjectFormat, algorithmNames[options.getAlgorithm().ordinal()],
+                options.getRows(), options.getColumns());
+        Intent intent = new Intent(Intent.ACTION_SEND)
+                .setType("text/plain")
+                .putExtra(Intent.EXTRA_SUBJECT, subject)
+                .putExtra(Intent.EXTRA_TEXT, report);
+        startActivity(Intent.createChooser(intent, frameStatsExportTitle));
+    }
+
+    private void showMetrics() {
+        StringBuilder text = new StringBuilder();
+        appendMetrics(text, maze.getGenerationMetrics());
+        appendMetrics(text, maze.getSolveMetrics());
+        metricsView.setText(text.length() > 0 ? text : metricsEmptyText);
+    }
+
+    private void appendMetrics(StringBuilder text, RunMetrics metrics) {
+        if (metrics == null) {
+            return;
+        }
+        String allocated = metrics.getAllocatedBytes() != RunMetrics.UNKNOWN
+                ? Formatter.formatShortFileSize(this, metrics.getAllocatedBytes())
+                : allocationUnknownText;
+        if (text.length() > 0) {
+            text.append("\n\n");
+        }
+        text.append(String.format(metricsFormat, metrics.getName(), metrics.getElapsedMillis(),
+                metrics.getStepsPerSecond(), metrics.getPeakFrontier(), metrics.getVisitedCells(), allocated));
+    }
+
+    private void showReplayPosition() {
+        mazeView.refresh();
+        infoView.setText(String.format(replayInfoFormat, replay.getPosition(), replay.getLength()));
+    }
+}
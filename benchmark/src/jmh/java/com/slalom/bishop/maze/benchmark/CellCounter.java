@@ -0,0 +1,21 @@
+package com.slalom.bishop.maze.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary JMH result counting maze cells processed, so results can be compared per cell across sizes.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class CellCounter {
+    public long cells;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        cells = 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full generation runs of the recursive backtracker, Kruskal's and Prim's algorithms on square, wide and tall
+ * grids. Wide and tall grids are {@code size / 4} by {@code size * 4}, which only matches the square's cell count
+ * when {@code size} is a multiple of 4 (at 50 they hold 2400 cells), so compare shapes by the {@link CellCounter}
+ * aux counter in cells/s rather than by the per-maze score; time per cell is its inverse.
+ * Row-oriented algorithms such as Eller's and Sidewinder favour wide grids.
+ * <p>
+ * Any other {@link MazeAlgorithm} can be run by passing JMH's {@code -p algorithm=...} to the benchmark jar.
+ * The uniform random walks of Aldous-Broder and Wilson's algorithm take seconds per maze at 1000x1000, so give
+ * them small sizes too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GeneratorBenchmark {
+    @Param({"50", "500", "1000", "2000", "4000"}) public int size;
+    @Param({"BACKTRACK", "KRUSKAL", "PRIM"}) public MazeAlgorithm algorithm;
+    @Param public GridShape shape;
+
+    private MazeGrid grid;
+    private Random random;
+
+    public enum GridShape {
+        SQUARE, WIDE, TALL;
+
+        int getRows(int size) {
+            switch (this) {
+                case WIDE: return size / 4;
+                case TALL: return size * 4;
+                default: return size;
+            }
+        }
+
+        int getColumns(int size) {
+            switch (this) {
+                case WIDE: return size * 4;
+                case TALL: return size / 4;
+                default: return size;
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(shape.getRows(size), shape.getColumns(size));
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public MazeGrid generate(CellCounter counter) {
+        grid.reset();
+        algorithm.generate(grid, random);
+        counter.cells += grid.getCellCount();
+        return grid;
+    }
+}
@@ -0,0 +1,74 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.solver.BreadthFirstSolver;
+import com.slalom.bishop.maze.solver.JunctionGraph;
+import com.slalom.bishop.maze.solver.MazeSolution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated solves between random start and goal pairs on one maze: the cell-level BFS against queries on a
+ * prebuilt {@link JunctionGraph}, with and without expanding the cell path. {@link #buildGraph} is the one-off
+ * cost the queries amortize.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JunctionGraphBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"500", "1000", "2000"}) public int size;
+    @Param({"BACKTRACK", "KRUSKAL", "PRIM"}) public MazeAlgorithm algorithm;
+
+    private MazeGrid grid;
+    private JunctionGraph graph;
+    private int[] startCells = new int[PAIRS], goalCells = new int[PAIRS];
+    private int pair;
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        algorithm.generate(grid, new Random(42));
+        graph = new JunctionGraph(grid);
+        Random random = new Random(7);
+        for (int i = 0; i < PAIRS; i++) {
+            startCells[i] = random.nextInt(grid.getCellCount());
+            goalCells[i] = random.nextInt(grid.getCellCount());
+        }
+    }
+
+    @Benchmark
+    public JunctionGraph buildGraph() {
+        return new JunctionGraph(grid);
+    }
+
+    @Benchmark
+    public MazeSolution breadthFirst() {
+        int i = pair++ & (PAIRS - 1);
+        return new BreadthFirstSolver().solve(grid, startCells[i], goalCells[i]);
+    }
+
+    @Benchmark
+    public int graphDistance() {
+        int i = pair++ & (PAIRS - 1);
+        return graph.getDistance(startCells[i], goalCells[i]);
+    }
+
+    @Benchmark
+    public MazeSolution graphPath() {
+        int i = pair++ & (PAIRS - 1);
+        return graph.solve(grid, startCells[i], goalCells[i]);
+    }
+}
@@ -0,0 +1,57 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.ParallelMazeGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock time of tile-parallel generation of one multi-million-cell maze as the pool grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelGeneratorBenchmark {
+    @Param({"2000", "4000"}) public int size;
+    @Param({"BACKTRACK", "KRUSKAL", "PRIM"}) public MazeAlgorithm algorithm;
+    @Param({"1", "2", "4", "8"}) public int threads;
+
+    private MazeGrid grid;
+    private Random random;
+    private ForkJoinPool pool;
+    private ParallelMazeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        random = new Random(42);
+        pool = new ForkJoinPool(threads);
+        generator = new ParallelMazeGenerator(algorithm, ParallelMazeGenerator.DEFAULT_TILE_SIZE, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public MazeGrid generate(CellCounter counter) {
+        grid.reset();
+        generator.generate(grid, random);
+        counter.cells += grid.getCellCount();
+        return grid;
+    }
+}
@@ -0,0 +1,66 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.solver.BreadthFirstSolver;
+import com.slalom.bishop.maze.solver.MazeSolution;
+import com.slalom.bishop.maze.solver.MazeSolver;
+import com.slalom.bishop.maze.solver.ParallelBreadthFirstSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corner-to-corner solves of one multi-million-cell maze with the level-synchronous parallel BFS as the pool
+ * grows. Zero threads runs the sequential {@link BreadthFirstSolver} on the same maze as the baseline, so the
+ * speedup is the ratio of the scores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSolverBenchmark {
+    @Param({"2000", "4000"}) public int size;
+    @Param({"BACKTRACK", "KRUSKAL", "PRIM"}) public MazeAlgorithm algorithm;
+    @Param({"0", "1", "2", "4", "8"}) public int threads;
+
+    private MazeGrid grid;
+    private ForkJoinPool pool;
+    private MazeSolver solver;
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        algorithm.generate(grid, new Random(42));
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            solver = new ParallelBreadthFirstSolver(pool);
+        } else {
+            solver = new BreadthFirstSolver();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public MazeSolution solve(CellCounter counter) {
+        MazeSolution solution = solver.solve(grid, 0, grid.getCellCount() - 1);
+        counter.cells += solution.getVisitedCells();
+        return solution;
+    }
+}
@@ -0,0 +1,53 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.KruskalGenerator;
+import com.slalom.bishop.maze.MazeGeometry;
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.solver.BreadthFirstSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The geometry work MazeView does for a full repaint, minus the Canvas calls:
+ * the batched lines for every closed wall plus the solution path lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RenderingBenchmark {
+    @Param({"50", "500", "1000", "2000", "4000"}) public int size;
+
+    private MazeGrid grid;
+    private MazeGeometry geometry;
+    private int[] path;
+    private float[] wallLines;
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        new KruskalGenerator(grid, new Random(42)).generate();
+        path = new BreadthFirstSolver().solve(grid, 0, grid.getCellCount() - 1).getPath();
+        geometry = new MazeGeometry();
+        geometry.setDimensions(1080, 1440, size, size);
+        wallLines = new float[MazeGeometry.getWallLinesCapacity(size, size)];
+    }
+
+    @Benchmark
+    public void prepareFrame(CellCounter counter, Blackhole blackhole) {
+        blackhole.consume(geometry.putClosedWallLines(grid, wallLines));
+        blackhole.consume(wallLines);
+        blackhole.consume(geometry.getPathLines(grid, path));
+        counter.cells += grid.getCellCount();
+    }
+}
@@ -0,0 +1,47 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.KruskalGenerator;
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.solver.MazeSolution;
+import com.slalom.bishop.maze.solver.MazeSolver;
+import com.slalom.bishop.maze.solver.SolverStrategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corner-to-corner solves of one fixed maze per size, for every solver strategy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SolverBenchmark {
+    @Param({"50", "500", "1000", "2000", "4000"}) public int size;
+    @Param public SolverStrategy strategy;
+
+    private MazeGrid grid;
+    private MazeSolver solver;
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        new KruskalGenerator(grid, new Random(42)).generate();
+        solver = strategy.createSolver();
+    }
+
+    @Benchmark
+    public MazeSolution solve(CellCounter counter) {
+        MazeSolution solution = solver.solve(grid, 0, grid.getCellCount() - 1);
+        counter.cells += solution.getVisitedCells();
+        return solution;
+    }
+}
@@ -0,0 +1,66 @@
+package com.slalom.bishop.maze.benchmark;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.solver.MazeSolution;
+import com.slalom.bishop.maze.solver.TreeIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries between random start and goal pairs on a prebuilt {@link TreeIndex}, directly comparable with
+ * {@link JunctionGraphBenchmark} on the same mazes. {@link #buildIndex} is the one-off cost the queries amortize.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreeIndexBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"500", "1000", "2000"}) public int size;
+    @Param({"BACKTRACK", "KRUSKAL", "PRIM"}) public MazeAlgorithm algorithm;
+
+    private MazeGrid grid;
+    private TreeIndex index;
+    private int[] startCells = new int[PAIRS], goalCells = new int[PAIRS];
+    private int pair;
+
+    @Setup
+    public void setUp() {
+        grid = new MazeGrid(size, size);
+        algorithm.generate(grid, new Random(42));
+        index = new TreeIndex(grid);
+        Random random = new Random(7);
+        for (int i = 0; i < PAIRS; i++) {
+            startCells[i] = random.nextInt(grid.getCellCount());
+            goalCells[i] = random.nextInt(grid.getCellCount());
+        }
+    }
+
+    @Benchmark
+    public TreeIndex buildIndex() {
+        return new TreeIndex(grid);
+    }
+
+    @Benchmark
+    public int indexDistance() {
+        int i = pair++ & (PAIRS - 1);
+        return index.getDistance(startCells[i], goalCells[i]);
+    }
+
+    @Benchmark
+    public MazeSolution indexPath() {
+        int i = pair++ & (PAIRS - 1);
+        return index.solve(grid, startCells[i], goalCells[i]);
+    }
+}
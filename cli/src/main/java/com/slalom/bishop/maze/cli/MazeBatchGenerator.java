@@ -0,0 +1,202 @@
+package com.slalom.bishop.maze.cli;
+
+import com.slalom.bishop.maze.EllerGenerator;
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions;
+import com.slalom.bishop.maze.ParallelMazeGenerator;
+import com.slalom.bishop.maze.io.MazeFileFormat;
+import com.slalom.bishop.maze.io.MazeFileHeader;
+import com.slalom.bishop.maze.io.MazeFileWriter;
+import com.slalom.bishop.maze.metrics.MetricsRecorder;
+import com.slalom.bishop.maze.metrics.RunMetrics;
+import com.slalom.bishop.maze.solver.DistanceField;
+import com.slalom.bishop.maze.solver.ParallelBreadthFirstSolver;
+import com.slalom.bishop.maze.solver.SolverSpeedup;
+import com.slalom.bishop.maze.solver.SolverStrategy;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless entry point that generates one maze per seed on a thread pool and streams them, in seed order,
+ * to a single output file in the {@link MazeFileFormat}. Eller mazes skip the pool and the grid: each is
+ * written row by row as {@link EllerGenerator} produces it.
+ */
+public class MazeBatchGenerator {
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final MazeBatchOptions options;
+    private final ThreadLocal<MazeGrid> grids;
+    private ParallelMazeGenerator parallelGenerator;
+
+    public MazeBatchGenerator(MazeBatchOptions options) {
+        this.options = options;
+        MazeOptions mazeOptions = options.getMazeOptions();
+        StorageAllocator allocator = StorageAllocator.forMode(mazeOptions.getStorage());
+        grids = ThreadLocal.withInitial(() -> new MazeGrid(mazeOptions.getRows(), mazeOptions.getColumns(), allocator));
+    }
+
+    public static void main(String[] args) {
+        MazeBatchOptions options;
+        try {
+            options = MazeBatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(MazeBatchOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            new MazeBatchGenerator(options).run();
+        } catch (IOException | ExecutionException | InterruptedException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    public void run() throws IOException, ExecutionException, InterruptedException {
+        MazeOptions mazeOptions = options.getMazeOptions();
+        long startTime = System.nanoTime();
+        int threadsUsed = options.isStreaming() ? 1 : options.getThreads();
+        if (options.isStreaming()) {
+            streamMazes();
+        } else {
+            generateMazes();
+        }
+
+        double seconds = (System.nanoTime() - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+        long mazeCount = options.getMazeCount();
+        double cellCount = (double) mazeCount * options.getRows() * mazeOptions.getColumns();
+        System.out.println(String.format(Locale.US, "Generated %d %s mazes of %dx%d in %.2f s on %d threads",
+                mazeCount, mazeOptions.getAlgorithm(), options.getRows(), mazeOptions.getColumns(), seconds, threadsUsed));
+        System.out.println(String.format(Locale.US, "%.1f mazes/s, %.0f cells/s", mazeCount / seconds, cellCount / seconds));
+
+        if (options.getSolveRuns() > 0) {
+            reportSolverSpeedup();
+        }
+        if (options.getMetricsOutput() != null) {
+            writeMetrics();
+        }
+    }
+
+    /**
+     * Writes each seed's maze while generating it, holding one row at a time.
+     */
+    private void streamMazes() throws IOException {
+        MazeOptions mazeOptions = options.getMazeOptions();
+        try (MazeFileWriter output = new MazeFileWriter(new FileOutputStream(options.getOutput()))) {
+            for (long seed = options.getFirstSeed(); seed <= options.getLastSeed(); seed++) {
+                EllerGenerator generator = new EllerGenerator(options.getRows(), mazeOptions.getColumns(), new Random(seed));
+                output.writeMaze(new MazeFileHeader(options.getRows(), mazeOptions.getColumns(), seed, mazeOptions.getAlgorithm()), generator);
+            }
+        }
+    }
+
+    private void generateMazes() throws IOException, ExecutionException, InterruptedException {
+        MazeOptions mazeOptions = options.getMazeOptions();
+        ForkJoinPool tilePool = null;
+        if (options.getTileSize() > 0) {
+            tilePool = new ForkJoinPool(options.getThreads());
+            parallelGenerator = new ParallelMazeGenerator(mazeOptions.getAlgorithm(), options.getTileSize(), tilePool);
+        }
+        int mazeThreads = parallelGenerator != null ? 1 : options.getThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(mazeThreads);
+        Queue<Future<byte[]>> pendingMazes = new ArrayDeque<>();
+        int maxPendingMazes = mazeThreads * TASKS_PER_THREAD;
+
+        try (MazeFileWriter output = new MazeFileWriter(new FileOutputStream(options.getOutput()))) {
+            long nextSeedToWrite = options.getFirstSeed();
+            for (long seed = options.getFirstSeed(); seed <= options.getLastSeed(); seed++) {
+                long mazeSeed = seed;
+                pendingMazes.add(executor.submit(() -> generate(mazeSeed)));
+                if (pendingMazes.size() >= maxPendingMazes) {
+                    writeMaze(output, pendingMazes.remove().get(), nextSeedToWrite++);
+                }
+            }
+            while (!pendingMazes.isEmpty()) {
+                writeMaze(output, pendingMazes.remove().get(), nextSeedToWrite++);
+            }
+        } finally {
+            executor.shutdownNow();
+            if (tilePool != null) {
+                tilePool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Generates the first seed's maze once more while recording it, solves it between the ends of its diameter
+     * with every {@link SolverStrategy}, and writes all runs to the metrics file as a JSON array.
+     */
+    private void writeMetrics() throws IOException {
+        MazeOptions mazeOptions = options.getMazeOptions();
+        MazeGrid grid = new MazeGrid(mazeOptions.getRows(), mazeOptions.getColumns(), StorageAllocator.forMode(mazeOptions.getStorage()));
+        List<RunMetrics> runs = new ArrayList<>();
+        runs.add(MetricsRecorder.measureGeneration(mazeOptions.getAlgorithm(), grid, new Random(options.getFirstSeed())));
+
+        DistanceField diameter = DistanceField.findDiameter(grid);
+        for (SolverStrategy strategy : SolverStrategy.values()) {
+            runs.add(MetricsRecorder.measureSolve(strategy, grid, diameter.getSourceCell(), diameter.getFarthestCell()));
+        }
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(options.getMetricsOutput()), StandardCharsets.UTF_8)) {
+            writer.write(RunMetrics.toJson(runs));
+            writer.write('\n');
+        }
+        for (RunMetrics run : runs) {
+            System.out.println(run);
+        }
+    }
+
+    /**
+     * Solves the first seed's maze corner to corner with the parallel and the sequential BFS and prints the speedup.
+     */
+    private void reportSolverSpeedup() {
+        MazeOptions mazeOptions = options.getMazeOptions();
+        MazeGrid grid = new MazeGrid(mazeOptions.getRows(), mazeOptions.getColumns(), StorageAllocator.forMode(mazeOptions.getStorage()));
+        mazeOptions.getAlgorithm().generate(grid, new Random(options.getFirstSeed()));
+
+        ForkJoinPool solverPool = new ForkJoinPool(options.getThreads());
+        try {
+            SolverSpeedup speedup = new ParallelBreadthFirstSolver(solverPool)
+                    .measureSpeedup(grid, 0, grid.getCellCount() - 1, options.getSolveRuns());
+            System.out.println(String.format(Locale.US, "Parallel BFS on %d threads: %s (path length %d)",
+                    options.getThreads(), speedup, speedup.getSolution().getLength()));
+        } finally {
+            solverPool.shutdownNow();
+        }
+    }
+
+    private byte[] generate(long seed) {
+        MazeGrid grid = grids.get();
+        grid.reset();
+        if (parallelGenerator != null) {
+            parallelGenerator.generate(grid, new Random(seed));
+        } else {
+            options.getMazeOptions().getAlgorithm().generate(grid, new Random(seed));
+        }
+        return MazeFileFormat.packWalls(grid);
+    }
+
+    private void writeMaze(MazeFileWriter output, byte[] walls, long seed) throws IOException {
+        MazeOptions mazeOptions = options.getMazeOptions();
+        output.writeMaze(new MazeFileHeader(mazeOptions.getRows(), mazeOptions.getColumns(), seed, mazeOptions.getAlgorithm()), walls);
+    }
+}
@@ -0,0 +1,132 @@
+package com.slalom.bishop.maze.cli;
+
+import com.slalom.bishop.maze.MazeOptions;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import java.io.File;
+
+import lombok.Getter;
+
+/**
+ * Command line options for {@link MazeBatchGenerator}: the {@link MazeOptions} fields that matter
+ * off-device, plus the seed range, worker count and output file. A tile size switches from one maze
+ * per worker to generating each maze across all workers with {@link com.slalom.bishop.maze.ParallelMazeGenerator}.
+ * A solve run count additionally times the parallel BFS solver against the sequential one on the first seed's maze,
+ * and a metrics file receives the generation and solving metrics of that maze as JSON.
+ * <p>
+ * Without a tile size, {@link MazeAlgorithm#ELLER} mazes are streamed row by row instead of generated into a grid,
+ * so their row count may be a long and their cell count may exceed what a grid can hold.
+ */
+public class MazeBatchOptions {
+    static final String USAGE = "Usage: MazeBatchGenerator --output <file> [--algorithm " + getAlgorithmNames() + "]"
+            + " [--rows <n>] [--columns <n>] [--seeds <first>-<last>] [--threads <n>] [--tile-size <n>]"
+            + " [--storage HEAP|DIRECT|MAPPED] [--solve-runs <n>] [--metrics <file>]";
+
+    @Getter private MazeOptions mazeOptions = new MazeOptions();
+    @Getter private long rows = 60;
+    @Getter private long firstSeed = 0, lastSeed = 999;
+    @Getter private int threads = Runtime.getRuntime().availableProcessors();
+    @Getter private int tileSize;
+    @Getter private int solveRuns;
+    @Getter private File output;
+    @Getter private File metricsOutput;
+
+    private MazeBatchOptions() {
+        mazeOptions.setRows((int) rows);
+        mazeOptions.setColumns(50);
+        mazeOptions.setAlgorithm(MazeAlgorithm.BACKTRACK);
+    }
+
+    public static MazeBatchOptions parse(String[] args) {
+        MazeBatchOptions options = new MazeBatchOptions();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--algorithm": options.mazeOptions.setAlgorithm(MazeAlgorithm.valueOf(value.toUpperCase()));
+                    break;
+                case "--rows": options.rows = parsePositiveLong(args[i], value);
+                    break;
+                case "--columns": options.mazeOptions.setColumns(parsePositive(args[i], value));
+                    break;
+                case "--seeds": options.parseSeeds(value);
+                    break;
+                case "--threads": options.threads = parsePositive(args[i], value);
+                    break;
+                case "--tile-size": options.tileSize = parsePositive(args[i], value);
+                    break;
+                case "--solve-runs": options.solveRuns = parsePositive(args[i], value);
+                    break;
+                case "--storage": options.mazeOptions.setStorage(StorageMode.valueOf(value.toUpperCase()));
+                    break;
+                case "--output": options.output = new File(value);
+                    break;
+                case "--metrics": options.metricsOutput = new File(value);
+                    break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (options.output == null) {
+            throw new IllegalArgumentException("--output is required");
+        }
+        if (options.rows > Long.MAX_VALUE / options.mazeOptions.getColumns()) {
+            throw new IllegalArgumentException("Unsupported maze dimensions: " + options.rows + "x" + options.mazeOptions.getColumns());
+        }
+        if (options.rows * options.mazeOptions.getColumns() > Integer.MAX_VALUE) {
+            if (!options.isStreaming() || options.solveRuns > 0 || options.metricsOutput != null) {
+                throw new IllegalArgumentException("Mazes of more than " + Integer.MAX_VALUE
+                        + " cells can only be streamed, with --algorithm ELLER and no --tile-size, --solve-runs or --metrics");
+            }
+        } else {
+            options.mazeOptions.setRows((int) options.rows);
+        }
+        return options;
+    }
+
+    /**
+     * @return whether mazes are written row by row as they are generated, without a grid
+     */
+    public boolean isStreaming() {
+        return mazeOptions.getAlgorithm() == MazeAlgorithm.ELLER && tileSize == 0;
+    }
+
+    public long getMazeCount() {
+        return lastSeed - firstSeed + 1;
+    }
+
+    private void parseSeeds(String value) {
+        int separator = value.indexOf('-', 1);
+        firstSeed = Long.parseLong(separator > 0 ? value.substring(0, separator) : value);
+        lastSeed = separator > 0 ? Long.parseLong(value.substring(separator + 1)) : firstSeed;
+        if (lastSeed < firstSeed) {
+            throw new IllegalArgumentException("Empty seed range " + value);
+        }
+    }
+
+    private static String getAlgorithmNames() {
+        StringBuilder names = new StringBuilder();
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            names.append(names.length() > 0 ? "|" : "").append(algorithm.name());
+        }
+        return names.toString();
+    }
+
+    private static long parsePositiveLong(String option, String value) {
+        long number = Long.parseLong(value);
+        if (number <= 0) {
+            throw new IllegalArgumentException(option + " must be greater than zero");
+        }
+        return number;
+    }
+
+    private static int parsePositive(String option, String value) {
+        int number = Integer.parseInt(value);
+        if (number <= 0) {
+            throw new IllegalArgumentException(option + " must be greater than zero");
+        }
+        return number;
+    }
+}
@@ -0,0 +1,89 @@
+package com.slalom.bishop.maze;
+
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Aldous-Broder algorithm: a random walk that carves a passage into every cell it enters for the first time,
+ * giving a uniformly random perfect maze. It needs no memory beyond the grid, but the walk has to cover the whole
+ * grid, expected O(n log^2 n) moves for n cells, and most late moves cross finished cells, so it is by far the
+ * slowest generator on large grids.
+ */
+public class AldousBroderGenerator implements MazeGenerator {
+    private final MazeGrid grid;
+    private final Random random;
+    @Getter private int currentCell;
+    @Getter private int unvisitedCells;
+
+    public AldousBroderGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        this.random = random;
+        unvisitedCells = grid.getCellCount() - 1;
+        currentCell = random.nextInt(grid.getCellCount());
+        grid.setFlag(currentCell, VISITED);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return unvisitedCells == 0;
+    }
+
+    @Override
+    public void generate() {
+        while (unvisitedCells > 0) {
+            walk();
+        }
+    }
+
+    /**
+     * Moves the walk to a random neighbour and marks it as the current cell.
+     *
+     * @return true while there are cells left to visit
+     */
+    @Override
+    public boolean step() {
+        if (unvisitedCells == 0) {
+            return false;
+        }
+        grid.clearFlag(currentCell, EXPLORING);
+        walk();
+        grid.setFlag(currentCell, EXPLORING);
+        return unvisitedCells > 0;
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        grid.clearFlag(currentCell, EXPLORING);
+    }
+
+    @Override
+    public long getProgress() {
+        return unvisitedCells;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return 0;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    private void walk() {
+        int direction = RandomDirections.getRandomDirection(grid, random, currentCell);
+        int adjacentCell = grid.getAdjacentCell(currentCell, direction);
+        if (!grid.hasFlag(adjacentCell, VISITED)) {
+            grid.removeWall(currentCell, direction);
+            grid.setFlag(adjacentCell, VISITED);
+            unvisitedCells--;
+        }
+        currentCell = adjacentCell;
+    }
+}
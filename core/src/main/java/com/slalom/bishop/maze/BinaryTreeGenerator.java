@@ -0,0 +1,92 @@
+package com.slalom.bishop.maze;
+
+import java.util.Random;
+
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.LEFT;
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Binary tree: every cell carves up or left at random, with no choice along the top row and the left column.
+ * It keeps no state but the next cell, so it takes O(n) time for n cells, O(1) memory beyond the grid, and is
+ * the cheapest generator per cell. The price is a strong bias: the top row and the left column are open
+ * corridors and every path runs diagonally towards the top-left corner.
+ */
+public class BinaryTreeGenerator implements MazeGenerator {
+    private final MazeGrid grid;
+    private final Random random;
+    private final int columns;
+    private int nextCell;
+    private int currentCell = NO_CELL;
+
+    public BinaryTreeGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        this.random = random;
+        columns = grid.getColumns();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return nextCell == grid.getCellCount();
+    }
+
+    @Override
+    public void generate() {
+        while (nextCell < grid.getCellCount()) {
+            carve(nextCell++);
+        }
+    }
+
+    /**
+     * Carves the next cell and marks it as the current cell.
+     *
+     * @return true while there are cells left
+     */
+    @Override
+    public boolean step() {
+        clearVisualIndicators();
+        if (isFinished()) {
+            return false;
+        }
+        currentCell = nextCell++;
+        carve(currentCell);
+        grid.setFlag(currentCell, EXPLORING);
+        return !isFinished();
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        if (currentCell != NO_CELL) {
+            grid.clearFlag(currentCell, EXPLORING);
+        }
+    }
+
+    @Override
+    public long getProgress() {
+        return grid.getCellCount() - nextCell;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return 0;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    private void carve(int cell) {
+        boolean canCarveUp = cell >= columns;
+        boolean canCarveLeft = cell % columns != 0;
+        grid.setFlag(cell, VISITED);
+        if (canCarveUp && (!canCarveLeft || random.nextBoolean())) {
+            grid.removeWall(cell, TOP);
+        } else if (canCarveLeft) {
+            grid.removeWall(cell, LEFT);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.slalom.bishop.maze;
+
+/**
+ * Cells of a {@link MazeGrid} that changed since they were last drained, for incremental redrawing.
+ * Changes are recorded into a fixed-size buffer; once it overflows, or the whole grid changes, the set
+ * collapses to "every cell" so the cost of tracking never grows with the maze. Safe to fill from a
+ * generator thread while the UI thread drains it.
+ */
+public class CellChanges {
+    public static final int ALL_CELLS = -1;
+
+    private final int[] cells;
+    private int count;
+    private boolean allChanged = true;
+
+    public CellChanges(int capacity) {
+        cells = new int[capacity];
+    }
+
+    public int getCapacity() {
+        return cells.length;
+    }
+
+    public synchronized void add(int cell) {
+        if (allChanged) {
+            return;
+        }
+        if (count == cells.length) {
+            addAll();
+        } else {
+            cells[count++] = cell;
+        }
+    }
+
+    public synchronized void addAll() {
+        allChanged = true;
+        count = 0;
+    }
+
+    public synchronized boolean isEmpty() {
+        return !allChanged && count == 0;
+    }
+
+    /**
+     * Moves the pending changes into {@code changedCells}, which must hold {@link #getCapacity()} entries.
+     * A cell may be reported more than once.
+     *
+     * @return the number of changed cells copied, or {@link #ALL_CELLS} if every cell must be redrawn
+     */
+    public synchronized int drainTo(int[] changedCells) {
+        int changedCount = allChanged ? ALL_CELLS : count;
+        if (!allChanged) {
+            System.arraycopy(cells, 0, changedCells, 0, count);
+        }
+        allChanged = false;
+        count = 0;
+        return changedCount;
+    }
+}
@@ -0,0 +1,81 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.CellStorage;
+import com.slalom.bishop.maze.storage.IntStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+/**
+ * Union-find forest over the integers {@code [0, size)} with path compression and union by rank,
+ * giving effectively constant amortized time per operation without any recursion.
+ */
+public class DisjointSet {
+    private final IntStorage parents;
+    private final CellStorage ranks;
+
+    public DisjointSet(int size) {
+        this(size, StorageAllocator.HEAP);
+    }
+
+    public DisjointSet(int size, StorageAllocator allocator) {
+        parents = allocator.allocateInts(size);
+        ranks = allocator.allocateCells(size);
+        reset();
+    }
+
+    /**
+     * Puts every element back into its own singleton set.
+     */
+    public void reset() {
+        for (int element = 0; element < parents.size(); element++) {
+            parents.set(element, element);
+        }
+        ranks.fill((byte) 0);
+    }
+
+    public int find(int element) {
+        int root = element;
+        while (parents.get(root) != root) {
+            root = parents.get(root);
+        }
+        while (parents.get(element) != root) {
+            int parent = parents.get(element);
+            parents.set(element, root);
+            element = parent;
+        }
+        return root;
+    }
+
+    /**
+     * @return the element's current parent, which is itself for a root; exposed to check path compression
+     */
+    int getParent(int element) {
+        return parents.get(element);
+    }
+
+    public boolean isConnected(int element, int otherElement) {
+        return find(element) == find(otherElement);
+    }
+
+    /**
+     * @return true if the two elements were in different sets and have been merged
+     */
+    public boolean union(int element, int otherElement) {
+        int root = find(element);
+        int otherRoot = find(otherElement);
+        if (root == otherRoot) {
+            return false;
+        }
+
+        byte rank = ranks.get(root);
+        byte otherRank = ranks.get(otherRoot);
+        if (rank < otherRank) {
+            parents.set(root, otherRoot);
+        } else if (rank > otherRank) {
+            parents.set(otherRoot, root);
+        } else {
+            parents.set(otherRoot, root);
+            ranks.set(root, (byte) (rank + 1));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,218 @@
+package com.slalom.bishop.maze;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+import static com.slalom.bishop.maze.MazeGrid.WALL_BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.WALL_RIGHT;
+
+/**
+ * Eller's algorithm, producing the maze one finished row at a time.
+ * Only the set membership of the current row is kept, with set ids recycled within {@code [0, columns)},
+ * so memory is O(columns) no matter how many rows are generated. Rows can be written into a
+ * {@link MazeGrid} or pulled with {@link #nextRow(byte[])} and streamed elsewhere.
+ * A full run takes O(n) time for n cells. Created with a grid, it also works as a {@link MazeGenerator}.
+ */
+public class EllerGenerator implements MazeGenerator {
+    private static final int NO_SET = -1;
+
+    @Getter private final long rows;
+    @Getter private final int columns;
+    private final Random random;
+    private final int[] sets;
+    private final int[] lastColumns;
+    private final boolean[] setsInUse;
+    private final DisjointSet rowSets;
+    private final byte[] rowWalls;
+    private final MazeGrid grid;
+    @Getter private long currentRow;
+
+    public EllerGenerator(long rows, int columns, Random random) {
+        this(null, rows, columns, random);
+    }
+
+    public EllerGenerator(MazeGrid grid, Random random) {
+        this(grid, grid.getRows(), grid.getColumns(), random);
+    }
+
+    private EllerGenerator(MazeGrid grid, long rows, int columns, Random random) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Unsupported maze dimensions: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.random = random;
+        this.grid = grid;
+        sets = new int[columns];
+        lastColumns = new int[columns];
+        setsInUse = new boolean[columns];
+        rowSets = new DisjointSet(columns);
+        rowWalls = new byte[columns];
+        for (int column = 0; column < columns; column++) {
+            sets[column] = column;
+        }
+    }
+
+    public long getRemainingRows() {
+        return rows - currentRow;
+    }
+
+    public boolean hasNextRow() {
+        return currentRow < rows;
+    }
+
+    /**
+     * Generates the next row and stores each cell's {@link MazeGrid#WALL_RIGHT} and
+     * {@link MazeGrid#WALL_BOTTOM} bits in {@code walls}, which must hold at least {@code columns} entries.
+     */
+    public void nextRow(byte[] walls) {
+        if (currentRow >= rows) {
+            throw new IllegalStateException("All " + rows + " rows have been generated");
+        }
+        boolean isLastRow = currentRow == rows - 1;
+        Arrays.fill(walls, 0, columns, (byte) (WALL_RIGHT | WALL_BOTTOM));
+
+        joinColumns(walls, isLastRow);
+        if (!isLastRow) {
+            openDownwards(walls);
+        }
+        currentRow++;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !hasNextRow();
+    }
+
+    @Override
+    public long getProgress() {
+        return getRemainingRows();
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return columns;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    @Override
+    public void generate() {
+        generate(getGrid());
+    }
+
+    @Override
+    public boolean step() {
+        return step(getGrid());
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        clearVisualIndicators(getGrid());
+    }
+
+    public void generate(MazeGrid grid) {
+        while (hasNextRow()) {
+            writeRow(grid);
+        }
+    }
+
+    /**
+     * Writes the next row into {@code grid} and highlights it as the row being explored.
+     *
+     * @return true while there are rows left to generate
+     */
+    public boolean step(MazeGrid grid) {
+        if (!hasNextRow()) {
+            return false;
+        }
+        clearVisualIndicators(grid);
+        writeRow(grid);
+        int firstCell = grid.getCell((int) currentRow - 1, 0);
+        for (int column = 0; column < columns; column++) {
+            grid.setFlag(firstCell + column, EXPLORING);
+        }
+        return hasNextRow();
+    }
+
+    public void clearVisualIndicators(MazeGrid grid) {
+        if (currentRow > 0) {
+            int firstCell = grid.getCell((int) currentRow - 1, 0);
+            for (int column = 0; column < columns; column++) {
+                grid.clearFlag(firstCell + column, EXPLORING);
+            }
+        }
+    }
+
+    private MazeGrid getGrid() {
+        if (grid == null) {
+            throw new IllegalStateException("Streaming generator has no grid");
+        }
+        return grid;
+    }
+
+    private void writeRow(MazeGrid grid) {
+        int firstCell = grid.getCell((int) currentRow, 0);
+        nextRow(rowWalls);
+        for (int column = 0; column < columns; column++) {
+            grid.setWallBits(firstCell + column, rowWalls[column]);
+            grid.setFlag(firstCell + column, VISITED);
+        }
+    }
+
+    /**
+     * Randomly joins horizontally adjacent cells of different sets; the last row joins all of them.
+     */
+    private void joinColumns(byte[] walls, boolean isLastRow) {
+        rowSets.reset();
+        for (int column = 0; column < columns - 1; column++) {
+            if ((isLastRow || random.nextBoolean()) && rowSets.union(sets[column], sets[column + 1])) {
+                walls[column] &= ~WALL_RIGHT;
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            sets[column] = rowSets.find(sets[column]);
+        }
+    }
+
+    /**
+     * Opens at least one cell of every set downwards and assigns fresh set ids to the cells below
+     * that stay closed.
+     */
+    private void openDownwards(byte[] walls) {
+        for (int column = 0; column < columns; column++) {
+            lastColumns[sets[column]] = column;
+        }
+
+        Arrays.fill(setsInUse, false);
+        for (int column = 0; column < columns; column++) {
+            int set = sets[column];
+            boolean mustOpen = lastColumns[set] == column && !setsInUse[set];
+            if (mustOpen || random.nextBoolean()) {
+                walls[column] &= ~WALL_BOTTOM;
+                setsInUse[set] = true;
+            } else {
+                sets[column] = NO_SET;
+            }
+        }
+
+        int freeSet = 0;
+        for (int column = 0; column < columns; column++) {
+            if (sets[column] == NO_SET) {
+                while (setsInUse[freeSet]) {
+                    freeSet++;
+                }
+                sets[column] = freeSet;
+                setsInUse[freeSet] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.IntStorage;
+
+import java.util.Random;
+
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Growing tree: keeps a list of active cells, repeatedly picks one and carves into a random unvisited
+ * neighbour, dropping the cell once it has none left. Always picking the newest cell behaves like the
+ * recursive backtracker and picking a random one like Prim's algorithm; the default mixes the two, giving
+ * long corridors with frequent branches. A dropped cell is replaced by the last active cell, so every pick
+ * is O(1) and a full run takes O(n) time for n cells, with O(n) ints for the active list in the worst case.
+ * While stepping, active cells carry the BACKTRACKING flag so they can be highlighted; {@link #generate()}
+ * leaves the flags alone.
+ */
+public class GrowingTreeGenerator implements MazeGenerator {
+    public static final float DEFAULT_NEWEST_PROBABILITY = 0.5f;
+    private static final int INITIAL_ACTIVE_CAPACITY = 1024;
+
+    private final MazeGrid grid;
+    private final Random random;
+    private final float newestProbability;
+    private IntStorage activeCells;
+    private int activeCount;
+    private int currentCell = NO_CELL;
+
+    public GrowingTreeGenerator(MazeGrid grid, Random random) {
+        this(grid, random, DEFAULT_NEWEST_PROBABILITY);
+    }
+
+    /**
+     * @param newestProbability how often the newest active cell is picked instead of a random one
+     */
+    public GrowingTreeGenerator(MazeGrid grid, Random random, float newestProbability) {
+        this.grid = grid;
+        this.random = random;
+        this.newestProbability = newestProbability;
+        activeCells = grid.getAllocator().allocateInts(Math.min(INITIAL_ACTIVE_CAPACITY, grid.getCellCount()));
+
+        int cell = random.nextInt(grid.getCellCount());
+        grid.setFlag(cell, VISITED);
+        activate(cell);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return activeCount == 0;
+    }
+
+    @Override
+    public void generate() {
+        while (activeCount > 0) {
+            advance();
+        }
+    }
+
+    /**
+     * Grows the tree from one active cell, or drops it, and marks the cell it worked on as the current cell.
+     *
+     * @return true while there are active cells left
+     */
+    @Override
+    public boolean step() {
+        clearVisualIndicators();
+        if (activeCount == 0) {
+            return false;
+        }
+        if (currentCell == NO_CELL) {
+            grid.setFlag(activeCells.get(0), BACKTRACKING);
+        }
+        int previousActiveCount = activeCount;
+        advance();
+        if (activeCount > previousActiveCount) {
+            grid.setFlag(currentCell, BACKTRACKING);
+        } else {
+            grid.clearFlag(currentCell, BACKTRACKING);
+        }
+        grid.setFlag(currentCell, EXPLORING);
+        return activeCount > 0;
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        if (currentCell != NO_CELL) {
+            grid.clearFlag(currentCell, EXPLORING);
+        }
+    }
+
+    @Override
+    public long getProgress() {
+        return activeCount;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return activeCount;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    private void advance() {
+        int index = random.nextFloat() < newestProbability ? activeCount - 1 : random.nextInt(activeCount);
+        int cell = activeCells.get(index);
+        int direction = RandomDirections.getRandomDirection(grid, random, cell, false);
+        if (direction >= 0) {
+            grid.removeWall(cell, direction);
+            currentCell = grid.getAdjacentCell(cell, direction);
+            grid.setFlag(currentCell, VISITED);
+            activate(currentCell);
+        } else {
+            activeCells.set(index, activeCells.get(--activeCount));
+            currentCell = cell;
+        }
+    }
+
+    private void activate(int cell) {
+        if (activeCount == activeCells.size()) {
+            int capacity = (int) Math.min((long) activeCells.size() * 2, grid.getCellCount());
+            IntStorage grownCells = grid.getAllocator().allocateInts(capacity);
+            for (int i = 0; i < activeCount; i++) {
+                grownCells.set(i, activeCells.get(i));
+            }
+            activeCells = grownCells;
+        }
+        activeCells.set(activeCount++, cell);
+    }
+}
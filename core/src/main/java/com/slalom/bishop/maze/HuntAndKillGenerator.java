@@ -0,0 +1,116 @@
+package com.slalom.bishop.maze;
+
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Hunt-and-kill: a random walk into unvisited cells that, whenever it gets stuck, hunts for the first unvisited
+ * cell next to the maze, connects it and walks on from there. The mazes have the long winding passages of the
+ * recursive backtracker without its stack, so memory is O(1) beyond the grid. Every cell before the hunt cursor
+ * is visited, so the first unvisited cell almost always borders the maze already and a full run takes O(n) time
+ * for n cells rather than the O(n^2) of rescanning the grid on every hunt.
+ */
+public class HuntAndKillGenerator implements MazeGenerator {
+    private final MazeGrid grid;
+    private final Random random;
+    private int huntCell;
+    @Getter private int currentCell;
+    @Getter private int unvisitedCells;
+
+    public HuntAndKillGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        this.random = random;
+        unvisitedCells = grid.getCellCount() - 1;
+        currentCell = random.nextInt(grid.getCellCount());
+        grid.setFlag(currentCell, VISITED);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return unvisitedCells == 0;
+    }
+
+    @Override
+    public void generate() {
+        while (unvisitedCells > 0) {
+            advance();
+        }
+    }
+
+    /**
+     * Walks into one unvisited cell, or hunts for the next cell to continue from, and marks the new
+     * current cell as exploring or backtracking respectively.
+     *
+     * @return true while there are cells left to visit
+     */
+    @Override
+    public boolean step() {
+        if (unvisitedCells == 0) {
+            return false;
+        }
+        clearVisualIndicators();
+        boolean walked = advance();
+        grid.setFlag(currentCell, walked ? EXPLORING : BACKTRACKING);
+        return unvisitedCells > 0;
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        grid.clearFlag(currentCell, EXPLORING | BACKTRACKING);
+    }
+
+    @Override
+    public long getProgress() {
+        return unvisitedCells;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return 0;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    /**
+     * @return true if the walk went on, false if it had to hunt for a new cell
+     */
+    private boolean advance() {
+        int direction = RandomDirections.getRandomDirection(grid, random, currentCell, false);
+        if (direction >= 0) {
+            grid.removeWall(currentCell, direction);
+            currentCell = grid.getAdjacentCell(currentCell, direction);
+            grid.setFlag(currentCell, VISITED);
+            unvisitedCells--;
+            return true;
+        }
+        hunt();
+        return false;
+    }
+
+    private void hunt() {
+        while (grid.hasFlag(huntCell, VISITED)) {
+            huntCell++;
+        }
+        for (int cell = huntCell; cell < grid.getCellCount(); cell++) {
+            if (!grid.hasFlag(cell, VISITED)) {
+                int direction = RandomDirections.getRandomDirection(grid, random, cell, true);
+                if (direction >= 0) {
+                    grid.removeWall(cell, direction);
+                    grid.setFlag(cell, VISITED);
+                    unvisitedCells--;
+                    currentCell = cell;
+                    return;
+                }
+            }
+        }
+    }
+}
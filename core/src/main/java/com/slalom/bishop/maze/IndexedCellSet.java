@@ -0,0 +1,98 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.IntStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import java.util.Random;
+
+/**
+ * Set of cell indices with O(1) add, contains, random pick and removal.
+ * Members are packed densely in an array; each cell remembers its slot, and removal moves the last
+ * member into the freed slot. The member array starts small and doubles as needed.
+ */
+public class IndexedCellSet {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StorageAllocator allocator;
+    private final IntStorage slots;
+    private IntStorage cells;
+    private int size;
+
+    public IndexedCellSet(int cellCount) {
+        this(cellCount, StorageAllocator.HEAP);
+    }
+
+    public IndexedCellSet(int cellCount, StorageAllocator allocator) {
+        this.allocator = allocator;
+        slots = allocator.allocateInts(cellCount);
+        slots.fill(-1);
+        cells = allocator.allocateInts(Math.min(INITIAL_CAPACITY, cellCount));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the member at {@code index}, for iterating over {@code [0, size())}
+     */
+    public int get(int index) {
+        return cells.get(index);
+    }
+
+    public boolean contains(int cell) {
+        return slots.get(cell) >= 0;
+    }
+
+    public boolean add(int cell) {
+        if (slots.get(cell) >= 0) {
+            return false;
+        }
+        if (size == cells.size()) {
+            grow();
+        }
+        slots.set(cell, size);
+        cells.set(size++, cell);
+        return true;
+    }
+
+    public boolean remove(int cell) {
+        int slot = slots.get(cell);
+        if (slot < 0) {
+            return false;
+        }
+        int lastCell = cells.get(--size);
+        cells.set(slot, lastCell);
+        slots.set(lastCell, slot);
+        slots.set(cell, -1);
+        return true;
+    }
+
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            slots.set(cells.get(slot), -1);
+        }
+        size = 0;
+    }
+
+    /**
+     * Removes and returns a uniformly random member.
+     */
+    public int removeRandom(Random random) {
+        int cell = cells.get(random.nextInt(size));
+        remove(cell);
+        return cell;
+    }
+
+    private void grow() {
+        IntStorage grownCells = allocator.allocateInts((int) Math.min((long) cells.size() * 2, slots.size()));
+        for (int slot = 0; slot < size; slot++) {
+            grownCells.set(slot, cells.get(slot));
+        }
+        cells = grownCells;
+    }
+}
@@ -0,0 +1,117 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.IntStorage;
+
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Randomized Kruskal's algorithm over an index-based edge list.
+ * Inner walls are shuffled once into int storage and consumed front to back, and cell connectivity
+ * is tracked by a {@link DisjointSet}, so a full run takes near-linear time after the O(n) shuffle.
+ * Memory is O(n) ints for the wall list and the sets.
+ */
+public class KruskalGenerator implements MazeGenerator {
+    private final MazeGrid grid;
+    private final IntStorage walls;
+    private final int wallCount;
+    private final DisjointSet cellSets;
+    private int position;
+    @Getter private int currentWall = NO_WALL;
+
+    public KruskalGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        walls = getRandomizedInnerWalls(grid, random);
+        wallCount = walls.size();
+        cellSets = new DisjointSet(grid.getCellCount(), grid.getAllocator());
+        if (wallCount == 0) {
+            // A single cell has no walls to check, so it would never be visited.
+            grid.setFlag(0, VISITED);
+        }
+    }
+
+    public int getRemainingWalls() {
+        return wallCount - position;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return position == wallCount;
+    }
+
+    @Override
+    public void generate() {
+        while (position < wallCount) {
+            checkWall(walls.get(position++));
+        }
+    }
+
+    /**
+     * Checks the next wall and removes it if it separates two unconnected regions.
+     *
+     * @return true while there are walls left to check
+     */
+    @Override
+    public boolean step() {
+        if (position == wallCount) {
+            return false;
+        }
+        currentWall = walls.get(position++);
+        checkWall(currentWall);
+        return position < wallCount;
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        currentWall = NO_WALL;
+    }
+
+    @Override
+    public long getProgress() {
+        return getRemainingWalls();
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return getRemainingWalls();
+    }
+
+    private void checkWall(int wall) {
+        int cell = MazeGrid.getWallCell(wall);
+        int direction = MazeGrid.getWallDirection(wall);
+        int adjacentCell = grid.getAdjacentCell(cell, direction);
+
+        if (cellSets.union(cell, adjacentCell)) {
+            grid.setFlag(cell, VISITED);
+            grid.setFlag(adjacentCell, VISITED);
+            grid.removeWall(cell, direction);
+        }
+    }
+
+    private static IntStorage getRandomizedInnerWalls(MazeGrid grid, Random random) {
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        IntStorage walls = grid.getAllocator().allocateInts(rows * (columns - 1) + (rows - 1) * columns);
+        int count = 0;
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            int rightWall = grid.getWall(cell, RIGHT);
+            int bottomWall = grid.getWall(cell, BOTTOM);
+            if (rightWall != NO_WALL) walls.set(count++, rightWall);
+            if (bottomWall != NO_WALL) walls.set(count++, bottomWall);
+        }
+
+        for (int i = walls.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int wall = walls.get(i);
+            walls.set(i, walls.get(j));
+            walls.set(j, wall);
+        }
+        return walls;
+    }
+}
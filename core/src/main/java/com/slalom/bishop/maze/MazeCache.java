@@ -0,0 +1,104 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of finished mazes keyed by (algorithm, rows, columns, seed), which identify a maze
+ * exactly since generation is deterministic for a given seed, and by the {@link StorageMode} of the grid,
+ * so that asking for a maze in another storage mode generates it in that mode instead of handing back a grid
+ * with different memory behaviour. Entries are kept in access order and the
+ * least recently used ones are evicted once the cached grids hold more than the configured number of cells.
+ * Cached grids are shared, so they must not be modified once they have been put in the cache.
+ */
+public class MazeCache {
+    public static final long DEFAULT_MAX_CELLS = 8 * 1024 * 1024;
+
+    private static final MazeCache INSTANCE = new MazeCache(DEFAULT_MAX_CELLS);
+
+    private final LinkedHashMap<Key, MazeGrid> grids = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxCells;
+    private long cachedCells;
+
+    public MazeCache(long maxCells) {
+        this.maxCells = maxCells;
+    }
+
+    public static MazeCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the cached grid, or null if the maze has not been generated or was evicted
+     */
+    public synchronized MazeGrid get(MazeAlgorithm algorithm, int rows, int columns, long seed, StorageMode storage) {
+        return grids.get(new Key(algorithm, rows, columns, seed, storage));
+    }
+
+    /**
+     * Caches a finished grid, unless it alone is larger than the whole cache.
+     */
+    public synchronized void put(MazeAlgorithm algorithm, int rows, int columns, long seed, StorageMode storage, MazeGrid grid) {
+        if (grid.getCellCount() > maxCells) {
+            return;
+        }
+        MazeGrid previousGrid = grids.put(new Key(algorithm, rows, columns, seed, storage), grid);
+        if (previousGrid != null) {
+            cachedCells -= previousGrid.getCellCount();
+        }
+        cachedCells += grid.getCellCount();
+
+        Iterator<Map.Entry<Key, MazeGrid>> eldestEntries = grids.entrySet().iterator();
+        while (cachedCells > maxCells) {
+            cachedCells -= eldestEntries.next().getValue().getCellCount();
+            eldestEntries.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return grids.size();
+    }
+
+    public synchronized void clear() {
+        grids.clear();
+        cachedCells = 0;
+    }
+
+    private static final class Key {
+        private final MazeAlgorithm algorithm;
+        private final int rows, columns;
+        private final long seed;
+        private final StorageMode storage;
+
+        Key(MazeAlgorithm algorithm, int rows, int columns, long seed, StorageMode storage) {
+            this.algorithm = algorithm;
+            this.rows = rows;
+            this.columns = columns;
+            this.seed = seed;
+            this.storage = storage;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return algorithm == key.algorithm && rows == key.rows && columns == key.columns && seed == key.seed
+                    && storage == key.storage;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = algorithm != null ? algorithm.hashCode() : 0;
+            hash = 31 * hash + rows;
+            hash = 31 * hash + columns;
+            hash = 31 * hash + (int) (seed ^ (seed >>> 32));
+            return 31 * hash + (storage != null ? storage.hashCode() : 0);
+        }
+    }
+}
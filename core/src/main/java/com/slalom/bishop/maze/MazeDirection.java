@@ -0,0 +1,15 @@
+package com.slalom.bishop.maze;
+
+public enum MazeDirection {
+    TOP, BOTTOM, LEFT, RIGHT, CENTER;
+
+    public static MazeDirection getOppositeDirection(MazeDirection direction) {
+        switch (direction) {
+            case TOP: return BOTTOM;
+            case BOTTOM: return TOP;
+            case LEFT: return RIGHT;
+            case RIGHT: return LEFT;
+            default: return CENTER;
+        }
+    }
+}
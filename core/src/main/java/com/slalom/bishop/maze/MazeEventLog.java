@@ -0,0 +1,70 @@
+package com.slalom.bishop.maze;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * Compact record of a generation run: one int per event, packing the event type in the low two bits and a
+ * cell index or wall id above them. Attached to a freshly reset {@link MazeGrid} with
+ * {@link MazeGrid#setEventLog(MazeEventLog)}, it captures every cell visit and wall removal made by any
+ * generator; generators that backtrack add their own {@link #BACKTRACK} events. Replayed by {@link MazeReplay}.
+ */
+public class MazeEventLog {
+    public static final int VISIT = 0, REMOVE_WALL = 1, BACKTRACK = 2;
+
+    private static final int TYPE_BITS = 2;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final int MAX_PAYLOAD = Integer.MAX_VALUE >>> TYPE_BITS;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Getter private final int rows, columns;
+    private int[] events = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public MazeEventLog(int rows, int columns) {
+        if ((long) rows * columns * 2 > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Too many cells to log: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getEvent(int index) {
+        return events[index];
+    }
+
+    public static int getType(int event) {
+        return event & TYPE_MASK;
+    }
+
+    /**
+     * @return the cell of a {@link #VISIT} or {@link #BACKTRACK} event, or the wall id of a {@link #REMOVE_WALL} event
+     */
+    public static int getPayload(int event) {
+        return event >>> TYPE_BITS;
+    }
+
+    public void visit(int cell) {
+        add(VISIT, cell);
+    }
+
+    public void removeWall(int wall) {
+        add(REMOVE_WALL, wall);
+    }
+
+    public void backtrack(int cell) {
+        add(BACKTRACK, cell);
+    }
+
+    private void add(int type, int payload) {
+        if (size == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        events[size++] = payload << TYPE_BITS | type;
+    }
+}
@@ -0,0 +1,42 @@
+package com.slalom.bishop.maze;
+
+/**
+ * Common contract for the maze generators. A generator is bound to a reset {@link MazeGrid} and a
+ * {@code Random} when it is created, see {@link MazeOptions.MazeAlgorithm#createGenerator}, and can then either be
+ * animated one {@link #step()} at a time or run to completion with {@link #generate()}.
+ * Every generator leaves a perfect maze with all cells {@link MazeGrid#VISITED}.
+ */
+public interface MazeGenerator {
+    /**
+     * Performs one visible unit of work and marks the cells it is working on as exploring or backtracking.
+     *
+     * @return true while there is work left
+     */
+    boolean step();
+
+    /**
+     * Runs the generator to completion without touching the visual indicator flags.
+     */
+    void generate();
+
+    boolean isFinished();
+
+    void clearVisualIndicators();
+
+    /**
+     * @return the algorithm's own measure of the work left, such as cells left to visit, as shown by the
+     * app's {@code maze_algorithm_progress_formats}
+     */
+    long getProgress();
+
+    /**
+     * @return how much pending work the algorithm holds: its stack, frontier, active list, wall list,
+     * current walk or run, or 0 for generators that keep none
+     */
+    int getFrontierSize();
+
+    /**
+     * @return the wall being considered, or {@link MazeGrid#NO_WALL} for generators that work on cells
+     */
+    int getCurrentWall();
+}
@@ -0,0 +1,115 @@
+package com.slalom.bishop.maze;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.LEFT;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * Maps maze cells onto view coordinates. Kept free of Android types so the
+ * per-frame rendering preparation can be measured on a plain JVM. Wall lines are written into
+ * caller-owned buffers in drawLines format, so preparing a frame allocates nothing.
+ */
+public class MazeGeometry {
+    @Getter private float cellWidth, cellHeight;
+
+    public void setDimensions(float width, float height, int rows, int columns) {
+        cellWidth = width / columns;
+        cellHeight = height / rows;
+    }
+
+    /**
+     * @return the number of floats needed to hold every wall of a {@code rows} x {@code columns} maze in drawLines format
+     */
+    public static int getWallLinesCapacity(int rows, int columns) {
+        return 4 * (rows * (columns + 1) + columns * (rows + 1));
+    }
+
+    /**
+     * Writes the line for one side of a cell into {@code lines} at {@code offset}.
+     *
+     * @return the offset just past the line
+     */
+    public int putWallLine(int row, int column, int direction, float[] lines, int offset) {
+        float left = column * cellWidth;
+        float top = row * cellHeight;
+        float right = (column + 1) * cellWidth;
+        float bottom = (row + 1) * cellHeight;
+        switch (direction) {
+            case TOP: return putLine(lines, offset, left, top, right, top);
+            case BOTTOM: return putLine(lines, offset, left, bottom, right, bottom);
+            case LEFT: return putLine(lines, offset, left, top, left, bottom);
+            case RIGHT: return putLine(lines, offset, right, top, right, bottom);
+            default: return offset;
+        }
+    }
+
+    /**
+     * Writes the closed walls around {@code cell}, at most 16 floats, into {@code lines} at {@code offset}.
+     *
+     * @return the offset just past the last line
+     */
+    public int putCellWallLines(MazeGrid grid, int cell, float[] lines, int offset) {
+        int row = grid.getRow(cell);
+        int column = grid.getColumn(cell);
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            if (grid.hasWall(cell, direction)) {
+                offset = putWallLine(row, column, direction, lines, offset);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Writes every closed wall of the maze exactly once, so they can all be stroked with a single drawLines call.
+     * {@code lines} must hold at least {@link #getWallLinesCapacity(int, int)} floats.
+     *
+     * @return the number of floats written
+     */
+    public int putClosedWallLines(MazeGrid grid, float[] lines) {
+        int offset = 0;
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            int row = grid.getRow(cell);
+            int column = grid.getColumn(cell);
+            if (row == 0) {
+                offset = putWallLine(row, column, TOP, lines, offset);
+            }
+            if (column == 0) {
+                offset = putWallLine(row, column, LEFT, lines, offset);
+            }
+            int wallBits = grid.getWallBits(cell);
+            if ((wallBits & MazeGrid.WALL_RIGHT) != 0 || column == grid.getColumns() - 1) {
+                offset = putWallLine(row, column, RIGHT, lines, offset);
+            }
+            if ((wallBits & MazeGrid.WALL_BOTTOM) != 0 || row == grid.getRows() - 1) {
+                offset = putWallLine(row, column, BOTTOM, lines, offset);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * @return line segments joining the centers of consecutive cells of {@code path}, in drawLines format
+     */
+    public float[] getPathLines(MazeGrid grid, int[] path) {
+        float[] lines = new float[Math.max(0, path.length - 1) * 4];
+        for (int i = 1; i < path.length; i++) {
+            int offset = (i - 1) * 4;
+            lines[offset] = (grid.getColumn(path[i - 1]) + 0.5f) * cellWidth;
+            lines[offset + 1] = (grid.getRow(path[i - 1]) + 0.5f) * cellHeight;
+            lines[offset + 2] = (grid.getColumn(path[i]) + 0.5f) * cellWidth;
+            lines[offset + 3] = (grid.getRow(path[i]) + 0.5f) * cellHeight;
+        }
+        return lines;
+    }
+
+    private static int putLine(float[] lines, int offset, float startX, float startY, float stopX, float stopY) {
+        lines[offset] = startX;
+        lines[offset + 1] = startY;
+        lines[offset + 2] = stopX;
+        lines[offset + 3] = stopY;
+        return offset + 4;
+    }
+}
@@ -0,0 +1,289 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.CellStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * Compact maze representation: one byte per cell, addressed by a row-major cell index.
+ * Each cell only stores its RIGHT and BOTTOM walls, so a wall shared by two cells is stored once;
+ * a cell's TOP and LEFT walls are read from the neighbouring cell, and the outer border is always closed.
+ * The remaining bits hold the per-cell generation and display state flags.
+ * Directions match the ordinals of {@link MazeDirection}. A wall is identified by {@code cell << 1},
+ * plus one for a BOTTOM wall. The bytes live in a {@link CellStorage} from the grid's {@link StorageAllocator},
+ * which generators and solvers also use for their working arrays, or in a supplied storage such as a loaded maze file.
+ */
+public class MazeGrid {
+    public static final int TOP = 0, BOTTOM = 1, LEFT = 2, RIGHT = 3;
+    public static final int NO_CELL = -1;
+    public static final int NO_WALL = -1;
+
+    public static final int WALL_RIGHT = 1;
+    public static final int WALL_BOTTOM = 1 << 1;
+    public static final int VISITED = 1 << 2;
+    public static final int EXPLORING = 1 << 3;
+    public static final int BACKTRACKING = 1 << 4;
+
+    private static final int WALLS = WALL_RIGHT | WALL_BOTTOM;
+
+    @Getter private final int rows, columns;
+    private final int cellCount;
+    private final CellStorage cells;
+    @Getter private final StorageAllocator allocator;
+    private static final CellChanges[] NO_CHANGE_TRACKERS = new CellChanges[0];
+
+    private volatile CellChanges[] changeTrackers = NO_CHANGE_TRACKERS;
+    @Getter private MazeEventLog eventLog;
+
+    public MazeGrid(int rows, int columns) {
+        this(rows, columns, StorageAllocator.HEAP);
+    }
+
+    public MazeGrid(int rows, int columns, StorageAllocator allocator) {
+        this(rows, columns, allocator.allocateCells(getCellCount(rows, columns)), allocator);
+        reset();
+    }
+
+    /**
+     * Wraps existing cell data, such as a loaded maze, without resetting it.
+     */
+    public MazeGrid(int rows, int columns, CellStorage cells) {
+        this(rows, columns, cells, StorageAllocator.HEAP);
+    }
+
+    private MazeGrid(int rows, int columns, CellStorage cells, StorageAllocator allocator) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cellCount = getCellCount(rows, columns);
+        if (cells.size() < cellCount) {
+            throw new IllegalArgumentException("Storage holds " + cells.size() + " cells, expected " + cellCount);
+        }
+        this.cells = cells;
+        this.allocator = allocator;
+    }
+
+    private static int getCellCount(int rows, int columns) {
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported maze dimensions: " + rows + "x" + columns);
+        }
+        return rows * columns;
+    }
+
+    /**
+     * Closes every wall and clears all state flags.
+     */
+    public void reset() {
+        cells.fill((byte) WALLS);
+        for (CellChanges changes : changeTrackers) {
+            changes.addAll();
+        }
+    }
+
+    /**
+     * Starts reporting which cells change into {@code changes}, which is owned by the caller and first marked as
+     * reporting every cell. A cell counts as changed when its flags or any of its four walls change, so removing
+     * a wall marks the cells on both sides. Several trackers may watch the same grid, so a shared grid can be
+     * shown by more than one view; each should be removed again once its owner stops watching.
+     */
+    public synchronized void addChangeTracker(CellChanges changes) {
+        changes.addAll();
+        CellChanges[] trackers = Arrays.copyOf(changeTrackers, changeTrackers.length + 1);
+        trackers[trackers.length - 1] = changes;
+        changeTrackers = trackers;
+    }
+
+    public synchronized void removeChangeTracker(CellChanges changes) {
+        for (int i = 0; i < changeTrackers.length; i++) {
+            if (changeTrackers[i] == changes) {
+                CellChanges[] trackers = new CellChanges[changeTrackers.length - 1];
+                System.arraycopy(changeTrackers, 0, trackers, 0, i);
+                System.arraycopy(changeTrackers, i + 1, trackers, i, trackers.length - i);
+                changeTrackers = trackers;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records cell visits and wall removals into {@code eventLog}, or stops recording when it is null.
+     */
+    public void setEventLog(MazeEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getCell(int row, int column) {
+        boolean isCellInMaze = row >= 0 && column >= 0 && row < rows && column < columns;
+        return isCellInMaze ? row * columns + column : NO_CELL;
+    }
+
+    public int getRow(int cell) {
+        return cell / columns;
+    }
+
+    public int getColumn(int cell) {
+        return cell % columns;
+    }
+
+    /**
+     * @return the index of the cell next to {@code cell} in {@code direction}, or {@link #NO_CELL} at the border
+     */
+    public int getAdjacentCell(int cell, int direction) {
+        switch (direction) {
+            case TOP: return cell >= columns ? cell - columns : NO_CELL;
+            case BOTTOM: return cell + columns < cellCount ? cell + columns : NO_CELL;
+            case LEFT: return cell % columns != 0 ? cell - 1 : NO_CELL;
+            case RIGHT: return (cell + 1) % columns != 0 ? cell + 1 : NO_CELL;
+            default: return NO_CELL;
+        }
+    }
+
+    public boolean hasWall(int cell, int direction) {
+        switch (direction) {
+            case TOP: return cell < columns || (cells.get(cell - columns) & WALL_BOTTOM) != 0;
+            case BOTTOM: return (cells.get(cell) & WALL_BOTTOM) != 0;
+            case LEFT: return cell % columns == 0 || (cells.get(cell - 1) & WALL_RIGHT) != 0;
+            case RIGHT: return (cells.get(cell) & WALL_RIGHT) != 0;
+            default: return true;
+        }
+    }
+
+    /**
+     * @return true if a neighbour exists in {@code direction} and no wall separates it from {@code cell}
+     */
+    public boolean isOpen(int cell, int direction) {
+        return getAdjacentCell(cell, direction) != NO_CELL && !hasWall(cell, direction);
+    }
+
+    /**
+     * Removes the wall between {@code cell} and its neighbour in {@code direction}.
+     * Border walls are never removed.
+     */
+    public void removeWall(int cell, int direction) {
+        switch (direction) {
+            case TOP: if (cell >= columns) clearBits(cell - columns, WALL_BOTTOM);
+                break;
+            case BOTTOM: if (cell + columns < cellCount) clearBits(cell, WALL_BOTTOM);
+                break;
+            case LEFT: if (cell % columns != 0) clearBits(cell - 1, WALL_RIGHT);
+                break;
+            case RIGHT: if ((cell + 1) % columns != 0) clearBits(cell, WALL_RIGHT);
+                break;
+        }
+    }
+
+    /**
+     * @return the direction leading from {@code cell} to the adjacent {@code otherCell}, or -1 if they are not adjacent
+     */
+    public int getDirection(int cell, int otherCell) {
+        if (otherCell == cell - columns) return TOP;
+        if (otherCell == cell + columns) return BOTTOM;
+        if (otherCell == cell - 1 && cell % columns != 0) return LEFT;
+        if (otherCell == cell + 1 && otherCell % columns != 0) return RIGHT;
+        return -1;
+    }
+
+    /**
+     * @return the id of the wall on the {@code direction} side of {@code cell}, or {@link #NO_WALL} for a border wall
+     */
+    public int getWall(int cell, int direction) {
+        switch (direction) {
+            case TOP: return cell >= columns ? (cell - columns) << 1 | 1 : NO_WALL;
+            case BOTTOM: return cell + columns < cellCount ? cell << 1 | 1 : NO_WALL;
+            case LEFT: return cell % columns != 0 ? (cell - 1) << 1 : NO_WALL;
+            case RIGHT: return (cell + 1) % columns != 0 ? cell << 1 : NO_WALL;
+            default: return NO_WALL;
+        }
+    }
+
+    public static int getWallCell(int wall) {
+        return wall >>> 1;
+    }
+
+    public static int getWallDirection(int wall) {
+        return (wall & 1) == 0 ? RIGHT : BOTTOM;
+    }
+
+    /**
+     * @return the cell's stored {@link #WALL_RIGHT} and {@link #WALL_BOTTOM} bits
+     */
+    public int getWallBits(int cell) {
+        return cells.get(cell) & WALLS;
+    }
+
+    /**
+     * Replaces the cell's stored walls with {@code wallBits}, leaving its state flags untouched.
+     */
+    public void setWallBits(int cell, int wallBits) {
+        int value = cells.get(cell);
+        write(cell, value, (value & ~WALLS) | (wallBits & WALLS));
+    }
+
+    public boolean hasFlag(int cell, int flag) {
+        return (cells.get(cell) & flag) != 0;
+    }
+
+    public void setFlag(int cell, int flag) {
+        int value = cells.get(cell);
+        write(cell, value, value | flag);
+    }
+
+    public void clearFlag(int cell, int flag) {
+        clearBits(cell, flag);
+    }
+
+    public void clearFlags(int flags) {
+        for (int cell = 0; cell < cellCount; cell++) {
+            clearBits(cell, flags);
+        }
+    }
+
+    private void clearBits(int cell, int bits) {
+        int value = cells.get(cell);
+        write(cell, value, value & ~bits);
+    }
+
+    private void write(int cell, int oldValue, int newValue) {
+        cells.set(cell, (byte) newValue);
+        if (eventLog != null && oldValue != newValue) {
+            int clearedBits = oldValue & ~newValue;
+            if ((clearedBits & WALL_RIGHT) != 0) {
+                eventLog.removeWall(cell << 1);
+            }
+            if ((clearedBits & WALL_BOTTOM) != 0) {
+                eventLog.removeWall(cell << 1 | 1);
+            }
+            if ((newValue & ~oldValue & VISITED) != 0) {
+                eventLog.visit(cell);
+            }
+        }
+        CellChanges[] trackers = changeTrackers;
+        if (trackers.length > 0 && oldValue != newValue) {
+            int changedBits = oldValue ^ newValue;
+            for (CellChanges changes : trackers) {
+                changes.add(cell);
+                if ((changedBits & WALL_RIGHT) != 0 && (cell + 1) % columns != 0) {
+                    changes.add(cell + 1);
+                }
+                if ((changedBits & WALL_BOTTOM) != 0 && cell + columns < cellCount) {
+                    changes.add(cell + columns);
+                }
+            }
+        }
+    }
+
+    public static int getOppositeDirection(int direction) {
+        switch (direction) {
+            case TOP: return BOTTOM;
+            case BOTTOM: return TOP;
+            case LEFT: return RIGHT;
+            default: return LEFT;
+        }
+    }
+}
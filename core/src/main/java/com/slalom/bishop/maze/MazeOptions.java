@@ -0,0 +1,53 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.solver.SolverStrategy;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import java.io.Serializable;
+import java.util.Random;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public class MazeOptions implements Serializable {
+    @Getter @Setter private int rows, columns, speed;
+    @Getter @Setter private long seed;
+    @Getter @Setter private MazeAlgorithm algorithm;
+    @Getter @Setter private MazeType type;
+    @Getter @Setter private SolverStrategy solver = SolverStrategy.BREADTH_FIRST;
+    @Getter @Setter private StorageMode storage = StorageMode.HEAP;
+
+    /**
+     * Registry of the maze generators. The app and the command line tools list {@link #values()}, so a new
+     * generator only needs a constant here, a case in {@link #createGenerator} and an entry in the app's
+     * {@code maze_algorithm_names} and {@code maze_algorithm_progress_formats} arrays. Constants are only ever
+     * appended, since their ordinals are stored in maze files and index those arrays.
+     */
+    public enum MazeAlgorithm {
+        BACKTRACK, KRUSKAL, PRIM, ELLER, WILSON, ALDOUS_BRODER, HUNT_AND_KILL, GROWING_TREE, SIDEWINDER, BINARY_TREE;
+
+        /**
+         * @param grid a freshly reset grid
+         */
+        public MazeGenerator createGenerator(MazeGrid grid, Random random) {
+            switch (this) {
+                case KRUSKAL: return new KruskalGenerator(grid, random);
+                case PRIM: return new PrimGenerator(grid, random);
+                case ELLER: return new EllerGenerator(grid, random);
+                case WILSON: return new WilsonGenerator(grid, random);
+                case ALDOUS_BRODER: return new AldousBroderGenerator(grid, random);
+                case HUNT_AND_KILL: return new HuntAndKillGenerator(grid, random);
+                case GROWING_TREE: return new GrowingTreeGenerator(grid, random);
+                case SIDEWINDER: return new SidewinderGenerator(grid, random);
+                case BINARY_TREE: return new BinaryTreeGenerator(grid, random);
+                default: return new RecursiveBacktrackGenerator(grid, random);
+            }
+        }
+
+        public void generate(MazeGrid grid, Random random) {
+            createGenerator(grid, random).generate();
+        }
+    }
+
+    enum MazeType { ANIMATE, GENERATE, SOLVE }
+}
\ No newline at end of file
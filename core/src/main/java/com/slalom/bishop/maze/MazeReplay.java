@@ -0,0 +1,179 @@
+package com.slalom.bishop.maze;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Plays a {@link MazeEventLog} back into its own grid, one event per {@link #step()}, so playback costs the same
+ * for every algorithm. Replayed events only ever mark cells visited and remove walls, so {@link #seek(int)} moves
+ * in either direction by applying or undoing the events in between: an event is undone only if it was the first
+ * to visit its cell or remove its wall, which the replay indexes when it is created. A seek therefore costs the
+ * number of events between the current position and the target, or a grid reset plus the target's events when
+ * replaying from the start is shorter. The index holds three ints per cell, plus the current cell every 64 events
+ * so that undoing can restore the highlight without scanning far back.
+ */
+public class MazeReplay {
+    private static final int CHECKPOINT_INTERVAL = 64;
+    private static final int NOT_LOGGED = Integer.MAX_VALUE;
+
+    private final MazeEventLog log;
+    @Getter private final MazeGrid grid;
+    private final int[] firstVisits;
+    private final int[] firstRemovals;
+    private final int[] checkpointCells;
+    private final int[] checkpointFlags;
+    @Getter private int position;
+    @Getter private int currentCell = NO_CELL;
+
+    public MazeReplay(MazeEventLog log) {
+        this.log = log;
+        grid = new MazeGrid(log.getRows(), log.getColumns());
+        firstVisits = new int[grid.getCellCount()];
+        firstRemovals = new int[grid.getCellCount() * 2];
+        Arrays.fill(firstVisits, NOT_LOGGED);
+        Arrays.fill(firstRemovals, NOT_LOGGED);
+        checkpointCells = new int[log.size() / CHECKPOINT_INTERVAL + 1];
+        checkpointFlags = new int[checkpointCells.length];
+
+        int cell = NO_CELL;
+        int flag = 0;
+        for (int index = 0; index <= log.size(); index++) {
+            if (index % CHECKPOINT_INTERVAL == 0) {
+                checkpointCells[index / CHECKPOINT_INTERVAL] = cell;
+                checkpointFlags[index / CHECKPOINT_INTERVAL] = flag;
+            }
+            if (index == log.size()) {
+                break;
+            }
+            int event = log.getEvent(index);
+            int payload = MazeEventLog.getPayload(event);
+            switch (MazeEventLog.getType(event)) {
+                case MazeEventLog.VISIT:
+                    firstVisits[payload] = Math.min(firstVisits[payload], index);
+                    cell = payload;
+                    flag = EXPLORING;
+                    break;
+                case MazeEventLog.REMOVE_WALL:
+                    firstRemovals[payload] = Math.min(firstRemovals[payload], index);
+                    break;
+                case MazeEventLog.BACKTRACK:
+                    cell = payload;
+                    flag = BACKTRACKING;
+                    break;
+            }
+        }
+    }
+
+    public int getLength() {
+        return log.size();
+    }
+
+    public boolean isFinished() {
+        return position == log.size();
+    }
+
+    /**
+     * Applies the next event and highlights the current cell.
+     *
+     * @return true while there are events left
+     */
+    public boolean step() {
+        if (position == log.size()) {
+            return false;
+        }
+        int event = log.getEvent(position++);
+        int payload = MazeEventLog.getPayload(event);
+        switch (MazeEventLog.getType(event)) {
+            case MazeEventLog.VISIT:
+                grid.setFlag(payload, VISITED);
+                moveCurrentCell(payload, EXPLORING);
+                break;
+            case MazeEventLog.REMOVE_WALL:
+                grid.removeWall(MazeGrid.getWallCell(payload), MazeGrid.getWallDirection(payload));
+                break;
+            case MazeEventLog.BACKTRACK:
+                moveCurrentCell(payload, BACKTRACKING);
+                break;
+        }
+        if (position == log.size()) {
+            moveCurrentCell(NO_CELL, 0);
+        }
+        return position < log.size();
+    }
+
+    /**
+     * Moves playback to just after the first {@code target} events.
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, log.size()));
+        if (target < position - target) {
+            moveCurrentCell(NO_CELL, 0);
+            grid.reset();
+            position = 0;
+        } else if (target < position) {
+            moveCurrentCell(NO_CELL, 0);
+            while (position > target) {
+                undo(--position);
+            }
+            restoreCurrentCell();
+        }
+        while (position < target) {
+            step();
+        }
+    }
+
+    private void undo(int index) {
+        int event = log.getEvent(index);
+        int payload = MazeEventLog.getPayload(event);
+        switch (MazeEventLog.getType(event)) {
+            case MazeEventLog.VISIT:
+                if (firstVisits[payload] == index) {
+                    grid.clearFlag(payload, VISITED);
+                }
+                break;
+            case MazeEventLog.REMOVE_WALL:
+                if (firstRemovals[payload] == index) {
+                    int cell = MazeGrid.getWallCell(payload);
+                    int wallBit = MazeGrid.getWallDirection(payload) == MazeGrid.RIGHT ? MazeGrid.WALL_RIGHT : MazeGrid.WALL_BOTTOM;
+                    grid.setWallBits(cell, grid.getWallBits(cell) | wallBit);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Highlights the cell of the last visit or backtrack before the position, looking back no further than the
+     * position's checkpoint. Only called for positions before the end of the log, which has no current cell.
+     */
+    private void restoreCurrentCell() {
+        int checkpoint = position / CHECKPOINT_INTERVAL;
+        for (int index = position - 1; index >= checkpoint * CHECKPOINT_INTERVAL; index--) {
+            int event = log.getEvent(index);
+            switch (MazeEventLog.getType(event)) {
+                case MazeEventLog.VISIT:
+                    moveCurrentCell(MazeEventLog.getPayload(event), EXPLORING);
+                    return;
+                case MazeEventLog.BACKTRACK:
+                    moveCurrentCell(MazeEventLog.getPayload(event), BACKTRACKING);
+                    return;
+            }
+        }
+        moveCurrentCell(checkpointCells[checkpoint], checkpointFlags[checkpoint]);
+    }
+
+    private void moveCurrentCell(int cell, int flag) {
+        if (currentCell != NO_CELL) {
+            grid.clearFlag(currentCell, EXPLORING | BACKTRACKING);
+        }
+        currentCell = cell;
+        if (cell != NO_CELL) {
+            grid.setFlag(cell, flag);
+        }
+    }
+}
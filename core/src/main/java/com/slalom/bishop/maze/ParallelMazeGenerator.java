@@ -0,0 +1,135 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.slalom.bishop.maze.MazeGrid.BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Generates one large maze on several cores. The grid is cut into square tiles, each tile is generated
+ * independently with the chosen algorithm on a {@link ForkJoinPool}, and the tiles are then joined by
+ * opening one random seam wall per edge of a random spanning tree over the tile grid. Since every tile
+ * is a spanning tree of its cells and the tiles are joined by a spanning tree, the result is still a
+ * perfect maze, although tile borders remain faintly visible as long straight seams.
+ * ForkJoinPool needs API 21 on Android, so this is meant for the JVM tools and newer devices.
+ */
+public class ParallelMazeGenerator {
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    private final MazeAlgorithm algorithm;
+    private final int tileSize;
+    private final ForkJoinPool pool;
+
+    public ParallelMazeGenerator(MazeAlgorithm algorithm, int tileSize, ForkJoinPool pool) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be greater than zero");
+        }
+        this.algorithm = algorithm;
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    public void generate(MazeGrid grid, Random random) {
+        int tileRows = (grid.getRows() + tileSize - 1) / tileSize;
+        int tileColumns = (grid.getColumns() + tileSize - 1) / tileSize;
+        long seed = random.nextLong();
+
+        pool.invoke(new TileTask(grid, tileColumns, seed, 0, tileRows * tileColumns));
+        joinTiles(grid, tileRows, tileColumns, random);
+    }
+
+    /**
+     * Opens one wall on a random spanning tree of the seams between adjacent tiles.
+     */
+    private void joinTiles(MazeGrid grid, int tileRows, int tileColumns, Random random) {
+        int tileCount = tileRows * tileColumns;
+        int[] seams = new int[tileRows * (tileColumns - 1) + (tileRows - 1) * tileColumns];
+        int count = 0;
+        for (int tile = 0; tile < tileCount; tile++) {
+            if (tile % tileColumns < tileColumns - 1) seams[count++] = tile << 1;
+            if (tile / tileColumns < tileRows - 1) seams[count++] = tile << 1 | 1;
+        }
+        for (int i = seams.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int seam = seams[i];
+            seams[i] = seams[j];
+            seams[j] = seam;
+        }
+
+        DisjointSet tileSets = new DisjointSet(tileCount);
+        for (int seam : seams) {
+            int tile = seam >>> 1;
+            boolean isBottomSeam = (seam & 1) != 0;
+            int adjacentTile = isBottomSeam ? tile + tileColumns : tile + 1;
+            if (tileSets.union(tile, adjacentTile)) {
+                openSeam(grid, tile / tileColumns, tile % tileColumns, isBottomSeam, random);
+            }
+        }
+    }
+
+    private void openSeam(MazeGrid grid, int tileRow, int tileColumn, boolean isBottomSeam, Random random) {
+        int firstRow = tileRow * tileSize;
+        int firstColumn = tileColumn * tileSize;
+        if (isBottomSeam) {
+            int width = Math.min(tileSize, grid.getColumns() - firstColumn);
+            int cell = grid.getCell(firstRow + tileSize - 1, firstColumn + random.nextInt(width));
+            grid.removeWall(cell, BOTTOM);
+        } else {
+            int height = Math.min(tileSize, grid.getRows() - firstRow);
+            int cell = grid.getCell(firstRow + random.nextInt(height), firstColumn + tileSize - 1);
+            grid.removeWall(cell, RIGHT);
+        }
+    }
+
+    private class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MazeGrid grid;
+        private final int tileColumns;
+        private final long seed;
+        private final int fromTile, toTile;
+
+        TileTask(MazeGrid grid, int tileColumns, long seed, int fromTile, int toTile) {
+            this.grid = grid;
+            this.tileColumns = tileColumns;
+            this.seed = seed;
+            this.fromTile = fromTile;
+            this.toTile = toTile;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTile - fromTile == 1) {
+                generateTile(fromTile);
+            } else {
+                int middleTile = (fromTile + toTile) >>> 1;
+                invokeAll(new TileTask(grid, tileColumns, seed, fromTile, middleTile),
+                        new TileTask(grid, tileColumns, seed, middleTile, toTile));
+            }
+        }
+
+        private void generateTile(int tile) {
+            int firstRow = tile / tileColumns * tileSize;
+            int firstColumn = tile % tileColumns * tileSize;
+            int rows = Math.min(tileSize, grid.getRows() - firstRow);
+            int columns = Math.min(tileSize, grid.getColumns() - firstColumn);
+
+            MazeGrid tileGrid = new MazeGrid(rows, columns);
+            algorithm.generate(tileGrid, new Random(seed + tile * 0x9E3779B97F4A7C15L));
+
+            for (int row = 0; row < rows; row++) {
+                int cell = grid.getCell(firstRow + row, firstColumn);
+                int tileCell = row * columns;
+                for (int column = 0; column < columns; column++) {
+                    grid.setWallBits(cell + column, tileGrid.getWallBits(tileCell + column));
+                    grid.setFlag(cell + column, VISITED);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.slalom.bishop.maze;
+
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Randomized Prim's algorithm. The frontier is an {@link IndexedCellSet}, so picking, removing and
+ * adding frontier cells are all O(1) and a full run is linear in the number of cells, with O(n) ints of memory.
+ * While stepping, frontier cells carry the BACKTRACKING flag so they can be highlighted; {@link #generate()}
+ * leaves the flags alone.
+ */
+public class PrimGenerator implements MazeGenerator {
+    private final MazeGrid grid;
+    private final Random random;
+    private final IndexedCellSet frontierCells;
+    @Getter private int currentCell = NO_CELL;
+
+    public PrimGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        this.random = random;
+        frontierCells = new IndexedCellSet(grid.getCellCount(), grid.getAllocator());
+
+        int cell = random.nextInt(grid.getCellCount());
+        grid.setFlag(cell, VISITED);
+        addFrontierCells(cell);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return frontierCells.isEmpty();
+    }
+
+    @Override
+    public void generate() {
+        while (!frontierCells.isEmpty()) {
+            connect(frontierCells.removeRandom(random));
+        }
+    }
+
+    /**
+     * Connects one random frontier cell to the maze and marks it as the current cell.
+     *
+     * @return true while the frontier is not empty
+     */
+    @Override
+    public boolean step() {
+        clearVisualIndicators();
+        if (frontierCells.isEmpty()) {
+            return false;
+        }
+        if (currentCell == NO_CELL) {
+            markFrontierCells(0);
+        }
+        currentCell = frontierCells.removeRandom(random);
+        int firstAddedIndex = frontierCells.size();
+        connect(currentCell);
+        grid.clearFlag(currentCell, BACKTRACKING);
+        grid.setFlag(currentCell, EXPLORING);
+        markFrontierCells(firstAddedIndex);
+        return !frontierCells.isEmpty();
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        if (currentCell != NO_CELL) {
+            grid.clearFlag(currentCell, EXPLORING);
+        }
+    }
+
+    @Override
+    public long getProgress() {
+        return frontierCells.size();
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return frontierCells.size();
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    private void connect(int cell) {
+        grid.removeWall(cell, RandomDirections.getRandomDirection(grid, random, cell, true));
+        grid.setFlag(cell, VISITED);
+        addFrontierCells(cell);
+    }
+
+
+    private void addFrontierCells(int cell) {
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            int adjacentCell = grid.getAdjacentCell(cell, direction);
+            if (adjacentCell != NO_CELL && !grid.hasFlag(adjacentCell, VISITED)) {
+                frontierCells.add(adjacentCell);
+            }
+        }
+    }
+
+    /**
+     * Flags the frontier cells from {@code firstIndex} on. New cells are appended, so after a step only the ones
+     * it added are flagged; the first step flags the whole frontier the constructor seeded.
+     */
+    private void markFrontierCells(int firstIndex) {
+        for (int i = firstIndex; i < frontierCells.size(); i++) {
+            grid.setFlag(frontierCells.get(i), BACKTRACKING);
+        }
+    }
+}
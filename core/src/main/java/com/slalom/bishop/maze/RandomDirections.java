@@ -0,0 +1,57 @@
+package com.slalom.bishop.maze;
+
+import java.util.Random;
+
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Random neighbour picks shared by the generators. The matching directions are collected into a bitmask and
+ * one of them is picked with a single {@link Random#nextInt(int)} call, so a pick allocates nothing and never
+ * retries.
+ */
+final class RandomDirections {
+
+    private RandomDirections() {
+    }
+
+    /**
+     * @return a random direction towards any neighbour of {@code cell}, or -1 for a 1x1 grid
+     */
+    static int getRandomDirection(MazeGrid grid, Random random, int cell) {
+        return getRandomDirection(grid, random, cell, false, false);
+    }
+
+    /**
+     * @return a random direction towards a neighbour of {@code cell} whose VISITED flag equals {@code visited},
+     * or -1 if there is none
+     */
+    static int getRandomDirection(MazeGrid grid, Random random, int cell, boolean visited) {
+        return getRandomDirection(grid, random, cell, true, visited);
+    }
+
+    private static int getRandomDirection(MazeGrid grid, Random random, int cell, boolean filtered, boolean visited) {
+        int candidates = 0;
+        int count = 0;
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            int adjacentCell = grid.getAdjacentCell(cell, direction);
+            if (adjacentCell != NO_CELL && (!filtered || grid.hasFlag(adjacentCell, VISITED) == visited)) {
+                candidates |= 1 << direction;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return -1;
+        }
+
+        int choice = count > 1 ? random.nextInt(count) : 0;
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            if ((candidates & 1 << direction) != 0 && choice-- == 0) {
+                return direction;
+            }
+        }
+        return -1;
+    }
+}
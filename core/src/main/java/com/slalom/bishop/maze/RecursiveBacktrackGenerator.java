@@ -0,0 +1,138 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.CellStorage;
+
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Depth-first "recursive backtrack" generator driven by an explicit stack instead of the call stack.
+ * The stack holds the direction taken into each cell (one byte per entry), so backtracking walks the
+ * opposite direction and no cell indices or per-cell objects are ever allocated.
+ * Time O(n) for n cells; memory O(n) bytes in the worst case for the stack, typically far less.
+ */
+public class RecursiveBacktrackGenerator implements MazeGenerator {
+    private static final int INITIAL_STACK_CAPACITY = 1024;
+
+    private final MazeGrid grid;
+    private final Random random;
+    private CellStorage directionStack;
+    private int stackSize;
+    @Getter private int currentCell;
+    @Getter private int unvisitedCells;
+
+    public RecursiveBacktrackGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        this.random = random;
+        directionStack = grid.getAllocator().allocateCells(Math.min(INITIAL_STACK_CAPACITY, grid.getCellCount()));
+        unvisitedCells = grid.getCellCount() - 1;
+        currentCell = random.nextInt(grid.getCellCount());
+        grid.setFlag(currentCell, VISITED);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return unvisitedCells == 0;
+    }
+
+    @Override
+    public void generate() {
+        while (unvisitedCells > 0) {
+            advance();
+        }
+    }
+
+    /**
+     * Performs one move, either into an unvisited cell or back along the stack,
+     * and marks the new current cell as exploring or backtracking.
+     *
+     * @return true while there are cells left to visit
+     */
+    @Override
+    public boolean step() {
+        if (unvisitedCells == 0) {
+            return false;
+        }
+        grid.clearFlag(currentCell, EXPLORING | BACKTRACKING);
+        boolean explored = advance();
+        grid.setFlag(currentCell, explored ? EXPLORING : BACKTRACKING);
+        return unvisitedCells > 0;
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        grid.clearFlag(currentCell, EXPLORING | BACKTRACKING);
+    }
+
+    @Override
+    public long getProgress() {
+        return unvisitedCells;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return stackSize;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    /**
+     * @return true if a new cell was visited, false if the generator backtracked
+     */
+    private boolean advance() {
+        int direction = RandomDirections.getRandomDirection(grid, random, currentCell, false);
+        if (direction >= 0) {
+            grid.removeWall(currentCell, direction);
+            push(direction);
+            currentCell = grid.getAdjacentCell(currentCell, direction);
+            grid.setFlag(currentCell, VISITED);
+            unvisitedCells--;
+            return true;
+        } else if (stackSize > 0) {
+            int oppositeDirection = MazeGrid.getOppositeDirection(directionStack.get(--stackSize));
+            currentCell = grid.getAdjacentCell(currentCell, oppositeDirection);
+            if (grid.getEventLog() != null) {
+                grid.getEventLog().backtrack(currentCell);
+            }
+            return false;
+        } else {
+            // Only reachable if the grid was pre-seeded with visited cells; restart from any unvisited cell.
+            currentCell = getUnvisitedCell();
+            grid.setFlag(currentCell, VISITED);
+            unvisitedCells--;
+            return true;
+        }
+    }
+
+
+    private void push(int direction) {
+        if (stackSize == directionStack.size()) {
+            int capacity = (int) Math.min((long) directionStack.size() * 2, grid.getCellCount());
+            CellStorage grownStack = grid.getAllocator().allocateCells(capacity);
+            for (int i = 0; i < stackSize; i++) {
+                grownStack.set(i, directionStack.get(i));
+            }
+            directionStack = grownStack;
+        }
+        directionStack.set(stackSize++, (byte) direction);
+    }
+
+    private int getUnvisitedCell() {
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            if (!grid.hasFlag(cell, VISITED)) {
+                return cell;
+            }
+        }
+        return NO_CELL;
+    }
+}
@@ -0,0 +1,129 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.CellStorage;
+
+import java.util.Random;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.NO_WALL;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+
+/**
+ * Wilson's algorithm: loop-erased random walks from cells outside the maze, each carved in once it hits the maze.
+ * Like Aldous-Broder it gives a uniformly random perfect maze, but it only walks until the maze is hit, which takes
+ * expected O(n log n) moves for n cells on a grid; the first walks are the long ones. Loops are erased implicitly
+ * by remembering only the direction each cell was last left by, one byte per cell from the grid's allocator,
+ * so memory is O(n) bytes.
+ */
+public class WilsonGenerator implements MazeGenerator {
+    private final MazeGrid grid;
+    private final Random random;
+    private final CellStorage exitDirections;
+    private int walkStartCell = NO_CELL;
+    private int nextStartCell;
+    private int walkLength;
+    @Getter private int currentCell = NO_CELL;
+    @Getter private int unvisitedCells;
+
+    public WilsonGenerator(MazeGrid grid, Random random) {
+        this.grid = grid;
+        this.random = random;
+        exitDirections = grid.getAllocator().allocateCells(grid.getCellCount());
+        unvisitedCells = grid.getCellCount() - 1;
+        grid.setFlag(random.nextInt(grid.getCellCount()), VISITED);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return unvisitedCells == 0;
+    }
+
+    @Override
+    public void generate() {
+        while (unvisitedCells > 0) {
+            walk();
+        }
+    }
+
+    /**
+     * Moves the current walk one cell and marks its head as the current cell; a walk that reaches the maze
+     * is carved in within the same step.
+     *
+     * @return true while there are cells left to visit
+     */
+    @Override
+    public boolean step() {
+        if (unvisitedCells == 0) {
+            return false;
+        }
+        clearVisualIndicators();
+        walk();
+        grid.setFlag(currentCell, EXPLORING);
+        return unvisitedCells > 0;
+    }
+
+    @Override
+    public void clearVisualIndicators() {
+        if (currentCell != NO_CELL) {
+            grid.clearFlag(currentCell, EXPLORING);
+        }
+    }
+
+    @Override
+    public long getProgress() {
+        return unvisitedCells;
+    }
+
+    @Override
+    public int getFrontierSize() {
+        return walkLength;
+    }
+
+    @Override
+    public int getCurrentWall() {
+        return NO_WALL;
+    }
+
+    private void walk() {
+        if (walkStartCell == NO_CELL) {
+            walkStartCell = getUnvisitedCell();
+            currentCell = walkStartCell;
+        }
+        int direction = RandomDirections.getRandomDirection(grid, random, currentCell);
+        exitDirections.set(currentCell, (byte) direction);
+        currentCell = grid.getAdjacentCell(currentCell, direction);
+        walkLength++;
+        if (grid.hasFlag(currentCell, VISITED)) {
+            carveWalk();
+            walkStartCell = NO_CELL;
+            walkLength = 0;
+        }
+    }
+
+    /**
+     * Follows the last exit of every cell from the walk's start, which skips any loops the walk made.
+     */
+    private void carveWalk() {
+        int cell = walkStartCell;
+        while (!grid.hasFlag(cell, VISITED)) {
+            int direction = exitDirections.get(cell);
+            grid.removeWall(cell, direction);
+            grid.setFlag(cell, VISITED);
+            unvisitedCells--;
+            cell = grid.getAdjacentCell(cell, direction);
+        }
+    }
+
+    /**
+     * @return the first unvisited cell; cells only ever become visited, so the scan resumes where it stopped
+     */
+    private int getUnvisitedCell() {
+        while (grid.hasFlag(nextStartCell, VISITED)) {
+            nextStartCell++;
+        }
+        return nextStartCell;
+    }
+}
@@ -0,0 +1,47 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.MazeGrid;
+
+/**
+ * Layout of a maze file. A file is a sequence of maze records, each a fixed 32 byte big-endian header
+ * followed by the walls of every cell packed two bits per cell ({@link MazeGrid#WALL_RIGHT} in the low bit,
+ * {@link MazeGrid#WALL_BOTTOM} in the high bit), four cells per byte in row-major order:
+ * <pre>
+ *  0  int   magic ("MAZE")
+ *  4  short version
+ *  6  byte  algorithm ordinal, or -1 when unknown
+ *  7  byte  reserved
+ *  8  long  rows
+ * 16  int   columns
+ * 20  int   reserved
+ * 24  long  seed
+ * </pre>
+ * Rows are a long so a streamed maze may have more cells than a {@link MazeGrid} can hold.
+ * Flags are not stored: every cell of a saved maze is visited.
+ */
+public final class MazeFileFormat {
+    public static final int MAGIC = 0x4D415A45;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    static final int CELLS_PER_BYTE = 4;
+    static final int WALL_MASK = MazeGrid.WALL_RIGHT | MazeGrid.WALL_BOTTOM;
+
+    private MazeFileFormat() {
+    }
+
+    /**
+     * @return the number of bytes holding the walls of a {@code rows} x {@code columns} maze
+     */
+    public static long getBodySize(long rows, int columns) {
+        return (rows * columns + CELLS_PER_BYTE - 1) / CELLS_PER_BYTE;
+    }
+
+    public static byte[] packWalls(MazeGrid grid) {
+        byte[] walls = new byte[(int) getBodySize(grid.getRows(), grid.getColumns())];
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            walls[cell >> 2] |= grid.getWallBits(cell) << ((cell & 3) << 1);
+        }
+        return walls;
+    }
+}
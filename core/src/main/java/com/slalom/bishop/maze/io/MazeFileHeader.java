@@ -0,0 +1,43 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import lombok.Getter;
+
+/**
+ * Describes one maze record: its dimensions and, when known, how it was generated.
+ */
+public class MazeFileHeader {
+    @Getter private final long rows;
+    @Getter private final int columns;
+    @Getter private final long seed;
+    @Getter private final MazeAlgorithm algorithm;
+
+    /**
+     * @param algorithm the generating algorithm, or null when unknown
+     */
+    public MazeFileHeader(long rows, int columns, long seed, MazeAlgorithm algorithm) {
+        if (rows <= 0 || columns <= 0 || rows > Long.MAX_VALUE / columns) {
+            throw new IllegalArgumentException("Unsupported maze dimensions: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.algorithm = algorithm;
+    }
+
+    public long getCellCount() {
+        return rows * columns;
+    }
+
+    /**
+     * @return whether the maze fits a {@link com.slalom.bishop.maze.MazeGrid}, whose cells are indexed by int
+     */
+    public boolean isGridSized() {
+        return getCellCount() <= Integer.MAX_VALUE;
+    }
+
+    public long getBodySize() {
+        return MazeFileFormat.getBodySize(rows, columns);
+    }
+}
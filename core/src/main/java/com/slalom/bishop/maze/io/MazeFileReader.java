@@ -0,0 +1,118 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads maze records by memory-mapping their packed walls, so opening a maze costs the same no matter
+ * how large it is and nothing is copied onto the heap. Mappings stay valid after the reader is closed.
+ */
+public class MazeFileReader implements Closeable {
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(MazeFileFormat.HEADER_SIZE);
+    private long position;
+
+    public MazeFileReader(File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
+    }
+
+    /**
+     * Opens the first maze in {@code file}.
+     */
+    public static MazeRecord load(File file) throws IOException {
+        try (MazeFileReader reader = new MazeFileReader(file)) {
+            return reader.next();
+        }
+    }
+
+    public boolean hasNext() throws IOException {
+        return position < channel.size();
+    }
+
+    public MazeRecord next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MazeFileHeader header = readHeader();
+        if (!header.isGridSized()) {
+            throw new IOException("Maze of " + header.getRows() + "x" + header.getColumns() + " is too large to map, skip it instead");
+        }
+        long bodySize = header.getBodySize();
+        checkBody(bodySize);
+        ByteBuffer walls = channel.map(FileChannel.MapMode.READ_ONLY, position + MazeFileFormat.HEADER_SIZE, bodySize);
+        position += MazeFileFormat.HEADER_SIZE + bodySize;
+
+        MazeGrid grid = new MazeGrid((int) header.getRows(), header.getColumns(), new PackedWallStorage(walls, (int) header.getCellCount()));
+        return new MazeRecord(header, grid);
+    }
+
+    /**
+     * Moves past the next maze without mapping it. This also works after {@link #next()} refused a maze too large
+     * for a grid, as a maze that could not be read is not moved past.
+     *
+     * @throws EOFException if the file ends before the maze does
+     */
+    public MazeFileHeader skip() throws IOException {
+        MazeFileHeader header = readHeader();
+        checkBody(header.getBodySize());
+        position += MazeFileFormat.HEADER_SIZE + header.getBodySize();
+        return header;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private void checkBody(long bodySize) throws IOException {
+        if (position + MazeFileFormat.HEADER_SIZE + bodySize > channel.size()) {
+            throw new EOFException("Truncated maze at offset " + position);
+        }
+    }
+
+    /**
+     * Reads the header at the current position without moving past it, so a refused maze can still be skipped.
+     */
+    private MazeFileHeader readHeader() throws IOException {
+        headerBuffer.clear();
+        while (headerBuffer.hasRemaining()) {
+            if (channel.read(headerBuffer, position + headerBuffer.position()) < 0) {
+                throw new EOFException("Truncated header at offset " + position);
+            }
+        }
+        headerBuffer.flip();
+
+        int magic = headerBuffer.getInt();
+        short version = headerBuffer.getShort();
+        if (magic != MazeFileFormat.MAGIC) {
+            throw new IOException("Not a maze file at offset " + position);
+        }
+        if (version != MazeFileFormat.VERSION) {
+            throw new IOException("Unsupported maze file version " + version);
+        }
+        int algorithm = headerBuffer.get();
+        headerBuffer.get();
+        long rows = headerBuffer.getLong();
+        int columns = headerBuffer.getInt();
+        headerBuffer.getInt();
+        long seed = headerBuffer.getLong();
+
+        MazeAlgorithm[] algorithms = MazeAlgorithm.values();
+        try {
+            return new MazeFileHeader(rows, columns, seed, algorithm >= 0 && algorithm < algorithms.length ? algorithms[algorithm] : null);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.EllerGenerator;
+import com.slalom.bishop.maze.MazeGrid;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams maze records in the {@link MazeFileFormat}. A maze is either written whole, or row by row
+ * between {@link #beginMaze(MazeFileHeader)} and {@link #endMaze()}, so a generator such as
+ * {@link EllerGenerator} can write a maze that never exists in memory.
+ */
+public class MazeFileWriter implements Closeable {
+    private final DataOutputStream output;
+    private MazeFileHeader header;
+    private long cellsWritten;
+    private int pendingByte;
+
+    public MazeFileWriter(OutputStream output) {
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+    }
+
+    public void writeMaze(MazeFileHeader header, MazeGrid grid) throws IOException {
+        if (grid.getRows() != header.getRows() || grid.getColumns() != header.getColumns()) {
+            throw new IllegalArgumentException("Header does not match a " + grid.getRows() + "x" + grid.getColumns() + " grid");
+        }
+        writeMaze(header, MazeFileFormat.packWalls(grid));
+    }
+
+    /**
+     * Writes a maze whose walls were already packed, e.g. with {@link MazeFileFormat#packWalls(MazeGrid)}.
+     */
+    public void writeMaze(MazeFileHeader header, byte[] packedWalls) throws IOException {
+        if (packedWalls.length != header.getBodySize()) {
+            throw new IllegalArgumentException("Expected " + header.getBodySize() + " bytes of walls, got " + packedWalls.length);
+        }
+        beginMaze(header);
+        output.write(packedWalls);
+        cellsWritten = header.getCellCount();
+        this.header = null;
+    }
+
+    /**
+     * Streams the rows of a fresh {@code generator} straight into the file, so only one row of the maze is ever in
+     * memory. The maze matches the one the same generator would build into a grid.
+     */
+    public void writeMaze(MazeFileHeader header, EllerGenerator generator) throws IOException {
+        if (generator.getRows() != header.getRows() || generator.getColumns() != header.getColumns()
+                || generator.getCurrentRow() != 0) {
+            throw new IllegalArgumentException("Header does not match a fresh " + generator.getRows() + "x"
+                    + generator.getColumns() + " generator");
+        }
+        byte[] rowWalls = new byte[header.getColumns()];
+        beginMaze(header);
+        while (generator.hasNextRow()) {
+            generator.nextRow(rowWalls);
+            writeCells(rowWalls, rowWalls.length);
+        }
+        endMaze();
+    }
+
+    public void beginMaze(MazeFileHeader header) throws IOException {
+        if (this.header != null) {
+            throw new IllegalStateException("The previous maze has not been ended");
+        }
+        this.header = header;
+        cellsWritten = 0;
+        pendingByte = 0;
+
+        output.writeInt(MazeFileFormat.MAGIC);
+        output.writeShort(MazeFileFormat.VERSION);
+        output.writeByte(header.getAlgorithm() != null ? header.getAlgorithm().ordinal() : -1);
+        output.writeByte(0);
+        output.writeLong(header.getRows());
+        output.writeInt(header.getColumns());
+        output.writeInt(0);
+        output.writeLong(header.getSeed());
+    }
+
+    /**
+     * Appends the wall bits of the next {@code count} cells, as produced by {@link MazeGrid#getWallBits(int)}
+     * or {@link EllerGenerator#nextRow(byte[])}.
+     */
+    public void writeCells(byte[] walls, int count) throws IOException {
+        if (header == null) {
+            throw new IllegalStateException("No maze has been begun");
+        }
+        if (count > header.getCellCount() - cellsWritten) {
+            throw new IllegalArgumentException("Maze only has " + header.getCellCount() + " cells");
+        }
+        for (int i = 0; i < count; i++) {
+            int shift = (int) (cellsWritten & 3) << 1;
+            pendingByte |= (walls[i] & MazeFileFormat.WALL_MASK) << shift;
+            cellsWritten++;
+            if ((cellsWritten & 3) == 0) {
+                output.write(pendingByte);
+                pendingByte = 0;
+            }
+        }
+    }
+
+    public void endMaze() throws IOException {
+        if (header == null) {
+            throw new IllegalStateException("No maze has been begun");
+        }
+        if (cellsWritten != header.getCellCount()) {
+            throw new IllegalStateException("Only " + cellsWritten + " of " + header.getCellCount() + " cells were written");
+        }
+        if ((cellsWritten & 3) != 0) {
+            output.write(pendingByte);
+        }
+        header = null;
+    }
+
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.MazeGrid;
+
+import lombok.Getter;
+
+/**
+ * A maze read from a file: its header and a read-only grid backed directly by the mapped file.
+ */
+public class MazeRecord {
+    @Getter private final MazeFileHeader header;
+    @Getter private final MazeGrid grid;
+
+    MazeRecord(MazeFileHeader header, MazeGrid grid) {
+        this.header = header;
+        this.grid = grid;
+    }
+}
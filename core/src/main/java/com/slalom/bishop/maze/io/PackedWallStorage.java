@@ -0,0 +1,41 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.CellStorage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of a packed maze body, decoding two wall bits per cell on every read.
+ * Every cell reports {@link MazeGrid#VISITED}, as only finished mazes are saved.
+ */
+class PackedWallStorage implements CellStorage {
+    private final ByteBuffer walls;
+    private final int size;
+
+    PackedWallStorage(ByteBuffer walls, int size) {
+        this.walls = walls;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int cell) {
+        int wallBits = (walls.get(cell >> 2) >> ((cell & 3) << 1)) & MazeFileFormat.WALL_MASK;
+        return (byte) (wallBits | MazeGrid.VISITED);
+    }
+
+    @Override
+    public void set(int cell, byte value) {
+        throw new UnsupportedOperationException("Loaded mazes are read-only");
+    }
+
+    @Override
+    public void fill(byte value) {
+        throw new UnsupportedOperationException("Loaded mazes are read-only");
+    }
+}
@@ -0,0 +1,48 @@
+package com.slalom.bishop.maze.metrics;
+
+import java.lang.reflect.Method;
+
+/**
+ * Per-thread allocation counter of HotSpot-based JVMs, looked up reflectively because neither
+ * {@code java.lang.management} nor {@code com.sun.management} exists on Android.
+ */
+final class AllocationCounter {
+    private static final Object threadBean;
+    private static final Method getThreadAllocatedBytes;
+
+    static {
+        Object bean = null;
+        Method method = null;
+        try {
+            bean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+            boolean isSupported = beanClass.isInstance(bean)
+                    && (Boolean) beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(bean)
+                    && (Boolean) beanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(bean);
+            if (isSupported) {
+                method = beanClass.getMethod("getThreadAllocatedBytes", long.class);
+            }
+        } catch (Exception | LinkageError e) {
+            method = null;
+        }
+        threadBean = bean;
+        getThreadAllocatedBytes = method;
+    }
+
+    private AllocationCounter() {
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or {@link RunMetrics#UNKNOWN}
+     */
+    static long getAllocatedBytes() {
+        if (getThreadAllocatedBytes == null) {
+            return RunMetrics.UNKNOWN;
+        }
+        try {
+            return (Long) getThreadAllocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return RunMetrics.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.slalom.bishop.maze.metrics;
+
+import java.util.Locale;
+
+import lombok.Getter;
+
+/**
+ * Frame timing of an animated view. {@link #recordDraw} takes the time spent in one draw pass and
+ * {@link #recordFrame} the vsync timestamp of each display frame; a gap of more than one frame interval between
+ * two timestamps means frames were skipped. Draw times and frame intervals are kept in {@link TimingRing}s of the
+ * most recent frames for percentiles, while frame, skip and jank counts and the skip histogram cover everything
+ * since the last {@link #reset()}. Recording never allocates, so it can run on every frame.
+ */
+public class FrameStats {
+    public static final int DEFAULT_CAPACITY = 240;
+    public static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667;
+
+    /**
+     * Frames are bucketed by how many frames they skipped: none, one, two, three, and four or more.
+     */
+    public static final int HISTOGRAM_BUCKETS = 5;
+
+    @Getter private final TimingRing drawTimes;
+    @Getter private final TimingRing frameIntervals;
+    @Getter private long frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    @Getter private long frameCount, drawCount;
+    @Getter private long skippedFrames, jankyFrames;
+    private final long[] skipHistogram = new long[HISTOGRAM_BUCKETS];
+    private long lastFrameTimeNanos;
+
+    public FrameStats() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FrameStats(int capacity) {
+        drawTimes = new TimingRing(capacity);
+        frameIntervals = new TimingRing(capacity);
+    }
+
+    /**
+     * Sets the display's frame interval, such as 1e9 / refresh rate, which decides when a gap counts as skipped frames.
+     */
+    public void setFrameIntervalNanos(long frameIntervalNanos) {
+        if (frameIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Frame interval must be greater than zero");
+        }
+        this.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    public void recordDraw(long durationNanos) {
+        drawTimes.add(durationNanos);
+        drawCount++;
+    }
+
+    /**
+     * @param frameTimeNanos the vsync time of the frame, as passed to a Choreographer frame callback
+     */
+    public void recordFrame(long frameTimeNanos) {
+        if (lastFrameTimeNanos != 0) {
+            long interval = frameTimeNanos - lastFrameTimeNanos;
+            frameIntervals.add(interval);
+            int skipped = (int) Math.max(0, Math.round((double) interval / frameIntervalNanos) - 1);
+            skippedFrames += skipped;
+            if (skipped > 0) {
+                jankyFrames++;
+            }
+            skipHistogram[Math.min(skipped, HISTOGRAM_BUCKETS - 1)]++;
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        frameCount++;
+    }
+
+    /**
+     * @return the number of frames that skipped {@code skipped} frames, with the last bucket counting all larger skips
+     */
+    public long getHistogramCount(int skipped) {
+        return skipHistogram[Math.min(skipped, HISTOGRAM_BUCKETS - 1)];
+    }
+
+    /**
+     * Clears everything, including the last frame time, so a pause in recording is not counted as skipped frames.
+     */
+    public void reset() {
+        drawTimes.clear();
+        frameIntervals.clear();
+        frameCount = 0;
+        drawCount = 0;
+        skippedFrames = 0;
+        jankyFrames = 0;
+        lastFrameTimeNanos = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            skipHistogram[i] = 0;
+        }
+    }
+
+    public String toJson() {
+        return String.format(Locale.US, "{\"frames\": %d, \"draws\": %d, \"skippedFrames\": %d, \"jankyFrames\": %d, "
+                        + "\"frameIntervalNanos\": %d, \"window\": %d, "
+                        + "\"drawNanos\": {\"p50\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d}, "
+                        + "\"frameNanos\": {\"p50\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d}, "
+                        + "\"skipHistogram\": [%d, %d, %d, %d, %d]}",
+                frameCount, drawCount, skippedFrames, jankyFrames, frameIntervalNanos, drawTimes.getCapacity(),
+                drawTimes.getPercentile(50), drawTimes.getPercentile(90), drawTimes.getPercentile(99), drawTimes.getMax(),
+                frameIntervals.getPercentile(50), frameIntervals.getPercentile(90), frameIntervals.getPercentile(99),
+                frameIntervals.getMax(), skipHistogram[0], skipHistogram[1], skipHistogram[2], skipHistogram[3],
+                skipHistogram[4]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d frames, %d skipped, %d janky\n"
+                        + "draw ms p50 %.2f p90 %.2f p99 %.2f max %.2f\n"
+                        + "frame ms p50 %.2f p90 %.2f p99 %.2f max %.2f\n"
+                        + "skips 0:%d 1:%d 2:%d 3:%d 4+:%d",
+                frameCount, skippedFrames, jankyFrames,
+                drawTimes.getPercentile(50) / 1e6, drawTimes.getPercentile(90) / 1e6,
+                drawTimes.getPercentile(99) / 1e6, drawTimes.getMax() / 1e6,
+                frameIntervals.getPercentile(50) / 1e6, frameIntervals.getPercentile(90) / 1e6,
+                frameIntervals.getPercentile(99) / 1e6, frameIntervals.getMax() / 1e6,
+                skipHistogram[0], skipHistogram[1], skipHistogram[2], skipHistogram[3], skipHistogram[4]);
+    }
+}
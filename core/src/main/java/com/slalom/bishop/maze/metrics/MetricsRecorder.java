@@ -0,0 +1,82 @@
+package com.slalom.bishop.maze.metrics;
+
+import com.slalom.bishop.maze.MazeGenerator;
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.metrics.RunMetrics.Phase;
+import com.slalom.bishop.maze.solver.MazeSolution;
+import com.slalom.bishop.maze.solver.SolverStrategy;
+
+import java.util.Random;
+
+/**
+ * Records one run from construction to {@link #finish}: wall-clock time, steps, the peak frontier and, where the
+ * runtime reports it, the bytes the recording thread allocated. A recorder must be finished on the thread that
+ * created it. {@link #measureGeneration} and {@link #measureSolve} record a whole run in one call.
+ */
+public class MetricsRecorder {
+    private final Phase phase;
+    private final String name;
+    private final int rows, columns;
+    private final long startAllocatedBytes;
+    private final long startTime;
+    private long steps;
+    private int peakFrontier;
+
+    public MetricsRecorder(Phase phase, String name, MazeGrid grid) {
+        this.phase = phase;
+        this.name = name;
+        this.rows = grid.getRows();
+        this.columns = grid.getColumns();
+        startAllocatedBytes = AllocationCounter.getAllocatedBytes();
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Counts one step that left {@code frontierSize} units of pending work.
+     */
+    public void step(int frontierSize) {
+        steps++;
+        if (frontierSize > peakFrontier) {
+            peakFrontier = frontierSize;
+        }
+    }
+
+    public RunMetrics finish(long visitedCells) {
+        long elapsedNanos = System.nanoTime() - startTime;
+        long endAllocatedBytes = AllocationCounter.getAllocatedBytes();
+        long allocatedBytes = startAllocatedBytes != RunMetrics.UNKNOWN && endAllocatedBytes != RunMetrics.UNKNOWN
+                ? endAllocatedBytes - startAllocatedBytes : RunMetrics.UNKNOWN;
+        return new RunMetrics(phase, name, rows, columns, elapsedNanos, steps, peakFrontier, visitedCells, allocatedBytes);
+    }
+
+    /**
+     * Takes the steps and peak frontier from the solver's own counts, as solvers run without a step callback.
+     */
+    public RunMetrics finish(MazeSolution solution) {
+        steps = solution.getVisitedCells();
+        peakFrontier = solution.getPeakFrontier();
+        return finish(solution.getVisitedCells());
+    }
+
+    /**
+     * Generates a maze into the reset {@code grid} one step at a time, sampling the generator's frontier after
+     * every step. The maze is the same one {@link MazeAlgorithm#generate} produces; the time includes the few
+     * flag writes per step that mark the cells being worked on.
+     */
+    public static RunMetrics measureGeneration(MazeAlgorithm algorithm, MazeGrid grid, Random random) {
+        MetricsRecorder recorder = new MetricsRecorder(Phase.GENERATION, algorithm.name(), grid);
+        MazeGenerator generator = algorithm.createGenerator(grid, random);
+        while (!generator.isFinished()) {
+            generator.step();
+            recorder.step(generator.getFrontierSize());
+        }
+        generator.clearVisualIndicators();
+        return recorder.finish(grid.getCellCount());
+    }
+
+    public static RunMetrics measureSolve(SolverStrategy strategy, MazeGrid grid, int startCell, int goalCell) {
+        MetricsRecorder recorder = new MetricsRecorder(Phase.SOLVING, strategy.name(), grid);
+        return recorder.finish(strategy.createSolver().solve(grid, startCell, goalCell));
+    }
+}
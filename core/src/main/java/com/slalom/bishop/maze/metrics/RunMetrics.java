@@ -0,0 +1,76 @@
+package com.slalom.bishop.maze.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+import lombok.Getter;
+
+/**
+ * What one generator or solver run cost, as recorded by a {@link MetricsRecorder}. Steps are a generator's
+ * {@link com.slalom.bishop.maze.MazeGenerator#step()} calls or the cells a solver visited, and the peak frontier is
+ * the most pending work the algorithm held at once. Allocated bytes are counted on the recording thread and are
+ * {@link #UNKNOWN} where the runtime cannot report them, which includes Android.
+ */
+public class RunMetrics {
+    public static final long UNKNOWN = -1;
+
+    public enum Phase {
+        GENERATION, SOLVING
+    }
+
+    @Getter private final Phase phase;
+    @Getter private final String name;
+    @Getter private final int rows, columns;
+    @Getter private final long elapsedNanos;
+    @Getter private final long steps;
+    @Getter private final int peakFrontier;
+    @Getter private final long visitedCells;
+    @Getter private final long allocatedBytes;
+
+    RunMetrics(Phase phase, String name, int rows, int columns, long elapsedNanos, long steps, int peakFrontier,
+               long visitedCells, long allocatedBytes) {
+        this.phase = phase;
+        this.name = name;
+        this.rows = rows;
+        this.columns = columns;
+        this.elapsedNanos = elapsedNanos;
+        this.steps = steps;
+        this.peakFrontier = peakFrontier;
+        this.visitedCells = visitedCells;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1e6;
+    }
+
+    public double getStepsPerSecond() {
+        return elapsedNanos > 0 ? steps * 1e9 / elapsedNanos : 0;
+    }
+
+    public String toJson() {
+        return String.format(Locale.US, "{\"phase\": \"%s\", \"name\": \"%s\", \"rows\": %d, \"columns\": %d, "
+                        + "\"elapsedNanos\": %d, \"steps\": %d, \"stepsPerSecond\": %.1f, \"peakFrontier\": %d, "
+                        + "\"visitedCells\": %d, \"allocatedBytes\": %s}",
+                phase, name.replace("\\", "\\\\").replace("\"", "\\\""), rows, columns, elapsedNanos, steps,
+                getStepsPerSecond(), peakFrontier, visitedCells, allocatedBytes != UNKNOWN ? allocatedBytes : "null");
+    }
+
+    /**
+     * @return the runs as a JSON array, one run per line
+     */
+    public static String toJson(List<RunMetrics> runs) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < runs.size(); i++) {
+            json.append(i > 0 ? ",\n  " : "\n  ").append(runs.get(i).toJson());
+        }
+        return json.append(runs.isEmpty() ? "]" : "\n]").toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s %s: %.2f ms, %.0f steps/s, peak frontier %d, %d cells visited, %s",
+                phase, name, getElapsedMillis(), getStepsPerSecond(), peakFrontier, visitedCells,
+                allocatedBytes != UNKNOWN ? allocatedBytes + " bytes allocated" : "allocation unknown");
+    }
+}
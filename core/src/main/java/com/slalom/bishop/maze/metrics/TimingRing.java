@@ -0,0 +1,75 @@
+package com.slalom.bishop.maze.metrics;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+/**
+ * Fixed-size ring of the most recent durations in nanoseconds, with statistics over that window. Adding a value
+ * overwrites the oldest one once the ring is full and never allocates; percentiles sort a copy of the window
+ * into a preallocated array, so reading them does not allocate either.
+ */
+public class TimingRing {
+    private final long[] values;
+    private final long[] sortedValues;
+    private int next;
+    @Getter private int size;
+    private boolean isSorted;
+
+    public TimingRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        values = new long[capacity];
+        sortedValues = new long[capacity];
+    }
+
+    public int getCapacity() {
+        return values.length;
+    }
+
+    public void add(long nanos) {
+        values[next] = nanos;
+        next = (next + 1) % values.length;
+        size = Math.min(size + 1, values.length);
+        isSorted = false;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+        isSorted = false;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the nearest-rank percentile of the window, or 0 if it is empty
+     */
+    public long getPercentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!isSorted) {
+            System.arraycopy(values, 0, sortedValues, 0, size);
+            Arrays.sort(sortedValues, 0, size);
+            isSorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * size);
+        return sortedValues[Math.max(0, Math.min(size - 1, rank - 1))];
+    }
+
+    public long getMax() {
+        return getPercentile(100);
+    }
+
+    public double getMean() {
+        if (size == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += values[i];
+        }
+        return (double) total / size;
+    }
+}
@@ -0,0 +1,114 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.CellStorage;
+import com.slalom.bishop.maze.storage.IntStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import java.util.Arrays;
+
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * A* search with a Manhattan distance heuristic.
+ * The open set is a binary min-heap of longs packing {@code (f << 32) | cell}; outdated heap entries
+ * are skipped when popped instead of being decreased in place. The per-cell arrays come from the grid's
+ * allocator; the heap only holds the open set and stays on the Java heap.
+ */
+public class AStarSolver implements MazeSolver {
+    private long[] heap;
+    private int heapSize, peakHeapSize;
+
+    @Override
+    public MazeSolution solve(MazeGrid grid, int startCell, int goalCell) {
+        int cellCount = grid.getCellCount();
+        StorageAllocator allocator = grid.getAllocator();
+        IntStorage parents = allocator.allocateInts(cellCount);
+        parents.fill(NO_CELL);
+        IntStorage distances = allocator.allocateInts(cellCount);
+        CellStorage closed = allocator.allocateCells(cellCount);
+        heap = new long[Math.min(cellCount, 1024)];
+        heapSize = 0;
+        peakHeapSize = 0;
+
+        int goalRow = grid.getRow(goalCell);
+        int goalColumn = grid.getColumn(goalCell);
+        int visitedCells = 1;
+        parents.set(startCell, startCell);
+        push(getHeuristic(grid, startCell, goalRow, goalColumn), startCell);
+
+        while (heapSize > 0) {
+            int cell = (int) pop();
+            if (closed.get(cell) != 0) {
+                continue;
+            }
+            if (cell == goalCell) {
+                heap = null;
+                return new MazeSolution(SolverPaths.build(parents, startCell, goalCell), visitedCells, peakHeapSize);
+            }
+            closed.set(cell, (byte) 1);
+
+            int distance = distances.get(cell) + 1;
+            for (int direction = TOP; direction <= RIGHT; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int adjacentCell = grid.getAdjacentCell(cell, direction);
+                    boolean unseen = parents.get(adjacentCell) == NO_CELL;
+                    if (unseen || (closed.get(adjacentCell) == 0 && distance < distances.get(adjacentCell))) {
+                        if (unseen) {
+                            visitedCells++;
+                        }
+                        parents.set(adjacentCell, cell);
+                        distances.set(adjacentCell, distance);
+                        push(distance + getHeuristic(grid, adjacentCell, goalRow, goalColumn), adjacentCell);
+                    }
+                }
+            }
+        }
+        heap = null;
+        return new MazeSolution(null, visitedCells, peakHeapSize);
+    }
+
+    private static int getHeuristic(MazeGrid grid, int cell, int goalRow, int goalColumn) {
+        return Math.abs(grid.getRow(cell) - goalRow) + Math.abs(grid.getColumn(cell) - goalColumn);
+    }
+
+    private void push(int priority, int cell) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        long entry = (long) priority << 32 | cell;
+        int i = heapSize++;
+        peakHeapSize = Math.max(peakHeapSize, heapSize);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,102 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.IntStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import java.util.Arrays;
+
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * Breadth-first search run from both ends at once, always expanding the smaller frontier by one level.
+ * The searches stop at the first cell reached from both sides.
+ */
+public class BidirectionalSolver implements MazeSolver {
+
+    @Override
+    public MazeSolution solve(MazeGrid grid, int startCell, int goalCell) {
+        int cellCount = grid.getCellCount();
+        if (startCell == goalCell) {
+            return new MazeSolution(new int[] { startCell }, 1, 1);
+        }
+
+        StorageAllocator allocator = grid.getAllocator();
+        IntStorage forwardParents = allocator.allocateInts(cellCount);
+        IntStorage backwardParents = allocator.allocateInts(cellCount);
+        forwardParents.fill(NO_CELL);
+        backwardParents.fill(NO_CELL);
+        Frontier forward = new Frontier(allocator.allocateInts(cellCount), forwardParents, startCell);
+        Frontier backward = new Frontier(allocator.allocateInts(cellCount), backwardParents, goalCell);
+
+        int meetingCell = NO_CELL;
+        int peakFrontier = 2;
+        while (meetingCell == NO_CELL && !forward.isExhausted() && !backward.isExhausted()) {
+            meetingCell = forward.getLevelSize() <= backward.getLevelSize()
+                    ? forward.expandLevel(grid, backwardParents)
+                    : backward.expandLevel(grid, forwardParents);
+            peakFrontier = Math.max(peakFrontier, forward.getLevelSize() + backward.getLevelSize());
+        }
+
+        int visitedCells = forward.tail + backward.tail;
+        if (meetingCell == NO_CELL) {
+            return new MazeSolution(null, visitedCells, peakFrontier);
+        }
+
+        int[] forwardPath = SolverPaths.build(forwardParents, startCell, meetingCell);
+        int[] backwardPath = SolverPaths.build(backwardParents, goalCell, meetingCell);
+        int[] path = Arrays.copyOf(forwardPath, forwardPath.length + backwardPath.length - 1);
+        for (int i = 0; i < backwardPath.length - 1; i++) {
+            path[forwardPath.length + i] = backwardPath[backwardPath.length - 2 - i];
+        }
+        return new MazeSolution(path, visitedCells, peakFrontier);
+    }
+
+    private static class Frontier {
+        private final IntStorage queue;
+        private final IntStorage parents;
+        private int head, tail;
+
+        Frontier(IntStorage queue, IntStorage parents, int rootCell) {
+            this.queue = queue;
+            this.parents = parents;
+            parents.set(rootCell, rootCell);
+            queue.set(tail++, rootCell);
+        }
+
+        boolean isExhausted() {
+            return head == tail;
+        }
+
+        int getLevelSize() {
+            return tail - head;
+        }
+
+        /**
+         * Expands every cell of the current level.
+         *
+         * @return a cell already reached by the opposite search, or {@link MazeGrid#NO_CELL}
+         */
+        int expandLevel(MazeGrid grid, IntStorage oppositeParents) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int cell = queue.get(head++);
+                for (int direction = TOP; direction <= RIGHT; direction++) {
+                    if (grid.isOpen(cell, direction)) {
+                        int adjacentCell = grid.getAdjacentCell(cell, direction);
+                        if (parents.get(adjacentCell) == NO_CELL) {
+                            parents.set(adjacentCell, cell);
+                            queue.set(tail++, adjacentCell);
+                            if (oppositeParents.get(adjacentCell) != NO_CELL) {
+                                return adjacentCell;
+                            }
+                        }
+                    }
+                }
+            }
+            return NO_CELL;
+        }
+    }
+}
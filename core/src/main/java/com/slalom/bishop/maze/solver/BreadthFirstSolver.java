@@ -0,0 +1,44 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.IntStorage;
+
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * Iterative breadth-first search over an int queue, recording each cell's parent for path rebuilding.
+ * Both arrays come from the grid's allocator.
+ */
+public class BreadthFirstSolver implements MazeSolver {
+
+    @Override
+    public MazeSolution solve(MazeGrid grid, int startCell, int goalCell) {
+        IntStorage parents = grid.getAllocator().allocateInts(grid.getCellCount());
+        parents.fill(NO_CELL);
+        IntStorage queue = grid.getAllocator().allocateInts(grid.getCellCount());
+        int head = 0, tail = 0;
+        int peakFrontier = 1;
+
+        parents.set(startCell, startCell);
+        queue.set(tail++, startCell);
+        while (head < tail) {
+            int cell = queue.get(head++);
+            if (cell == goalCell) {
+                return new MazeSolution(SolverPaths.build(parents, startCell, goalCell), tail, peakFrontier);
+            }
+            for (int direction = TOP; direction <= RIGHT; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int adjacentCell = grid.getAdjacentCell(cell, direction);
+                    if (parents.get(adjacentCell) == NO_CELL) {
+                        parents.set(adjacentCell, cell);
+                        queue.set(tail++, adjacentCell);
+                    }
+                }
+            }
+            peakFrontier = Math.max(peakFrontier, tail - head);
+        }
+        return new MazeSolution(null, tail, peakFrontier);
+    }
+}
@@ -0,0 +1,87 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.IntStorage;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * Breadth-first distances from one source cell to every cell of the maze, computed in a single O(n) pass into
+ * storage from the grid's allocator, with the farthest cell found along the way. {@link #findDiameter} runs two passes to place the
+ * source and the farthest cell at the two ends of the maze's longest shortest path, which makes the hardest start
+ * and goal pair a perfect maze has.
+ */
+public class DistanceField {
+    public static final int UNREACHABLE = -1;
+
+    private final IntStorage distances;
+    @Getter private final int sourceCell;
+    @Getter private int farthestCell;
+    @Getter private int maxDistance;
+    @Getter private int reachableCells;
+
+    private DistanceField(int sourceCell, IntStorage distances) {
+        this.sourceCell = sourceCell;
+        this.distances = distances;
+    }
+
+    public static DistanceField compute(MazeGrid grid, int sourceCell) {
+        IntStorage queue = grid.getAllocator().allocateInts(grid.getCellCount());
+        DistanceField field = new DistanceField(sourceCell, grid.getAllocator().allocateInts(grid.getCellCount()));
+        field.fill(grid, queue);
+        return field;
+    }
+
+    /**
+     * Finds the ends of the maze diameter: the cell farthest from the top left cell is one end, and the cell
+     * farthest from that end is the other. This is exact for perfect mazes; with loops it is a lower bound.
+     *
+     * @return the distances from one end of the diameter, whose {@link #getFarthestCell()} is the other end
+     */
+    public static DistanceField findDiameter(MazeGrid grid) {
+        IntStorage queue = grid.getAllocator().allocateInts(grid.getCellCount());
+        IntStorage distances = grid.getAllocator().allocateInts(grid.getCellCount());
+        DistanceField firstPass = new DistanceField(0, distances);
+        firstPass.fill(grid, queue);
+        DistanceField field = new DistanceField(firstPass.farthestCell, distances);
+        field.fill(grid, queue);
+        return field;
+    }
+
+    /**
+     * @return the number of moves from the source to {@code cell}, or {@link #UNREACHABLE}
+     */
+    public int getDistance(int cell) {
+        return distances.get(cell);
+    }
+
+    public int getCellCount() {
+        return distances.size();
+    }
+
+    private void fill(MazeGrid grid, IntStorage queue) {
+        distances.fill(UNREACHABLE);
+        int head = 0, tail = 0;
+        distances.set(sourceCell, 0);
+        queue.set(tail++, sourceCell);
+        while (head < tail) {
+            int cell = queue.get(head++);
+            int distance = distances.get(cell) + 1;
+            for (int direction = TOP; direction <= RIGHT; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int adjacentCell = grid.getAdjacentCell(cell, direction);
+                    if (distances.get(adjacentCell) == UNREACHABLE) {
+                        distances.set(adjacentCell, distance);
+                        queue.set(tail++, adjacentCell);
+                    }
+                }
+            }
+        }
+        farthestCell = queue.get(tail - 1);
+        maxDistance = distances.get(farthestCell);
+        reachableCells = tail;
+    }
+}
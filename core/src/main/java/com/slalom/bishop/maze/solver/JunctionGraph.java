@@ -0,0 +1,372 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.CellStorage;
+import com.slalom.bishop.maze.storage.IntStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import java.util.Arrays;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * The maze contracted to its junctions: every corridor of cells with exactly two openings between two junctions
+ * becomes one weighted edge, stored in compressed sparse rows (per-node edge offsets into target, weight and first
+ * direction arrays from the grid's allocator). Corridors ending in a dead end can never be part of a route between
+ * junctions and are left out. Building it walks every corridor at most twice, O(n) for n cells.
+ * A query walks from the start and goal to the junctions at the ends of their corridors and runs Dijkstra's
+ * algorithm on the junctions only; {@link #getDistance} stops there, and {@link #solve} additionally walks the
+ * chosen corridors again to expand the route into a cell path. Query state is reused between queries with a
+ * generation stamp, so a query costs nothing proportional to the graph size and instances are not thread-safe.
+ * The graph reflects the grid when it was built and must be rebuilt after the maze changes.
+ */
+public class JunctionGraph implements MazeSolver {
+    private static final int NO_NODE = -1;
+    private static final int DEAD_END = -2;
+
+    @Getter private final MazeGrid grid;
+    @Getter private final int nodeCount, edgeCount;
+    private final IntStorage nodeIndices;
+    private final IntStorage nodeCells;
+    private final IntStorage edgeOffsets;
+    private final IntStorage edgeTargets;
+    private final IntStorage edgeWeights;
+    private final CellStorage edgeDirections;
+
+    private final IntStorage distances, parentNodes, parentEdges, stamps;
+    private final Endpoint startEnd = new Endpoint(), goalEnd = new Endpoint();
+    private int stamp;
+    private long[] heap = new long[64];
+    private int heapSize, peakHeapSize;
+    private int walkLength, walkStopDistance;
+    private int bestNode, bestTarget, settledNodes;
+
+    public JunctionGraph(MazeGrid grid) {
+        this.grid = grid;
+        StorageAllocator allocator = grid.getAllocator();
+        int cellCount = grid.getCellCount();
+        nodeIndices = allocator.allocateInts(cellCount);
+
+        int nodes = 0;
+        long edges = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int degree = getDegree(cell);
+            if (degree > 2) {
+                nodeIndices.set(cell, nodes++);
+                edges += degree;
+            } else {
+                nodeIndices.set(cell, degree == 2 ? NO_NODE : DEAD_END);
+            }
+        }
+        if (edges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many junction edges: " + edges);
+        }
+        nodeCount = nodes;
+
+        nodeCells = allocator.allocateInts(nodeCount);
+        edgeOffsets = allocator.allocateInts(nodeCount + 1);
+        edgeTargets = allocator.allocateInts((int) edges);
+        edgeWeights = allocator.allocateInts((int) edges);
+        edgeDirections = allocator.allocateCells((int) edges);
+        int edge = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int node = nodeIndices.get(cell);
+            if (node < 0) {
+                continue;
+            }
+            nodeCells.set(node, cell);
+            edgeOffsets.set(node, edge);
+            for (int direction = TOP; direction <= RIGHT; direction++) {
+                if (grid.isOpen(cell, direction)) {
+                    int endNode = nodeIndices.get(walk(cell, direction, MazeGrid.NO_CELL));
+                    if (endNode >= 0) {
+                        edgeTargets.set(edge, endNode);
+                        edgeWeights.set(edge, walkLength);
+                        edgeDirections.set(edge, (byte) direction);
+                        edge++;
+                    }
+                }
+            }
+        }
+        edgeOffsets.set(nodeCount, edge);
+        edgeCount = edge;
+
+        distances = allocator.allocateInts(nodeCount);
+        parentNodes = allocator.allocateInts(nodeCount);
+        parentEdges = allocator.allocateInts(nodeCount);
+        stamps = allocator.allocateInts(nodeCount);
+    }
+
+    /**
+     * @return the number of moves on a shortest path, or -1 if {@code goalCell} is unreachable
+     */
+    public int getDistance(int startCell, int goalCell) {
+        int distance = search(startCell, goalCell);
+        return distance == Integer.MAX_VALUE ? -1 : distance;
+    }
+
+    /**
+     * Finds a shortest path and expands it into cells. The visited cell count is the number of junction
+     * nodes that were settled, and the peak frontier is the largest size of the Dijkstra heap.
+     *
+     * @param grid the grid this graph was built from
+     */
+    @Override
+    public MazeSolution solve(MazeGrid grid, int startCell, int goalCell) {
+        if (grid != this.grid) {
+            throw new IllegalArgumentException("Junction graph was built for a different grid");
+        }
+        int distance = search(startCell, goalCell);
+        int[] path = distance != Integer.MAX_VALUE ? expand(startCell, goalCell, distance) : null;
+        return new MazeSolution(path, settledNodes, peakHeapSize);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the start's corridor ends to the goal's, leaving the parents of the
+     * settled nodes, {@link #bestNode} and {@link #bestTarget} for {@link #expand}.
+     *
+     * @return the shortest distance, or {@link Integer#MAX_VALUE} if there is no path
+     */
+    private int search(int startCell, int goalCell) {
+        bestNode = NO_NODE;
+        settledNodes = 0;
+        peakHeapSize = 0;
+        if (startCell == goalCell) {
+            startEnd.directDistance = 0;
+            return 0;
+        }
+        resolve(startCell, goalCell, startEnd);
+        resolve(goalCell, startCell, goalEnd);
+        int best = startEnd.directDistance >= 0 ? startEnd.directDistance : Integer.MAX_VALUE;
+
+        nextStamp();
+        heapSize = 0;
+        for (int i = 0; i < startEnd.count; i++) {
+            relax(startEnd.nodes[i], startEnd.distances[i], NO_NODE, -1 - i);
+        }
+
+        while (heapSize > 0) {
+            long entry = pop();
+            int distance = (int) (entry >>> 32);
+            int node = (int) entry;
+            if (distance >= best) {
+                break;
+            }
+            if (distance > distances.get(node)) {
+                continue;
+            }
+            settledNodes++;
+            for (int i = 0; i < goalEnd.count; i++) {
+                if (goalEnd.nodes[i] == node && distance + goalEnd.distances[i] < best) {
+                    best = distance + goalEnd.distances[i];
+                    bestNode = node;
+                    bestTarget = i;
+                }
+            }
+            for (int edge = edgeOffsets.get(node); edge < edgeOffsets.get(node + 1); edge++) {
+                relax(edgeTargets.get(edge), distance + edgeWeights.get(edge), node, edge);
+            }
+        }
+        return best;
+    }
+
+    private void relax(int node, int distance, int parentNode, int parentEdge) {
+        if (stamps.get(node) != stamp || distance < distances.get(node)) {
+            stamps.set(node, stamp);
+            distances.set(node, distance);
+            parentNodes.set(node, parentNode);
+            parentEdges.set(node, parentEdge);
+            push(distance, node);
+        }
+    }
+
+    private void nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            stamps.fill(0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Records the junctions at the ends of {@code cell}'s corridor, or the cell itself if it is a junction, and
+     * the direct distance to {@code otherCell} if it lies on the same corridor.
+     */
+    private void resolve(int cell, int otherCell, Endpoint end) {
+        end.count = 0;
+        end.directDistance = -1;
+        int node = nodeIndices.get(cell);
+        if (node >= 0) {
+            end.add(node, 0, -1);
+            return;
+        }
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            if (grid.isOpen(cell, direction)) {
+                int endCell = walk(cell, direction, otherCell);
+                if (walkStopDistance >= 0 && (end.directDistance < 0 || walkStopDistance < end.directDistance)) {
+                    end.directDistance = walkStopDistance;
+                    end.directDirection = direction;
+                }
+                if (endCell != cell && nodeIndices.get(endCell) >= 0) {
+                    end.add(nodeIndices.get(endCell), walkLength, direction);
+                }
+            }
+        }
+    }
+
+    private int[] expand(int startCell, int goalCell, int distance) {
+        int[] path = new int[distance + 1];
+        path[0] = startCell;
+        if (bestNode == NO_NODE) {
+            writeCorridor(path, 0, 1, startCell, startEnd.directDirection, distance);
+            return path;
+        }
+
+        path[distance] = goalCell;
+        int tail = goalEnd.distances[bestTarget];
+        writeCorridor(path, distance, -1, goalCell, goalEnd.directions[bestTarget], tail);
+        int position = distance - tail;
+        int node = bestNode;
+        while (parentEdges.get(node) >= 0) {
+            int edge = parentEdges.get(node);
+            int parentNode = parentNodes.get(node);
+            int weight = edgeWeights.get(edge);
+            position -= weight;
+            path[position] = nodeCells.get(parentNode);
+            writeCorridor(path, position, 1, nodeCells.get(parentNode), edgeDirections.get(edge), weight);
+            node = parentNode;
+        }
+        int source = -1 - parentEdges.get(node);
+        writeCorridor(path, 0, 1, startCell, startEnd.directions[source], startEnd.distances[source]);
+        return path;
+    }
+
+    /**
+     * Writes the {@code moves} cells after {@code cell} along its corridor into {@code path}, starting next to
+     * {@code from} and going in {@code step} direction.
+     */
+    private void writeCorridor(int[] path, int from, int step, int cell, int direction, int moves) {
+        for (int move = 1; move <= moves; move++) {
+            if (move > 1) {
+                direction = getCorridorDirection(cell, direction);
+            }
+            cell = grid.getAdjacentCell(cell, direction);
+            path[from + step * move] = cell;
+        }
+    }
+
+    /**
+     * Follows the corridor leaving {@code cell} in {@code direction} until it reaches a junction or a dead end,
+     * or comes back to {@code cell}. Sets {@link #walkLength} to the number of moves, and {@link #walkStopDistance}
+     * to the moves after which {@code stopCell} was first passed, or -1.
+     *
+     * @return the cell the walk ended on
+     */
+    private int walk(int cell, int direction, int stopCell) {
+        int current = grid.getAdjacentCell(cell, direction);
+        int length = 1;
+        walkStopDistance = current == stopCell ? 1 : -1;
+        while (current != cell && nodeIndices.get(current) == NO_NODE) {
+            direction = getCorridorDirection(current, direction);
+            current = grid.getAdjacentCell(current, direction);
+            length++;
+            if (current == stopCell && walkStopDistance < 0) {
+                walkStopDistance = length;
+            }
+        }
+        walkLength = length;
+        return current;
+    }
+
+    /**
+     * @return the corridor cell's other opening, given the direction it was entered in
+     */
+    private int getCorridorDirection(int cell, int enteredDirection) {
+        int cameFrom = MazeGrid.getOppositeDirection(enteredDirection);
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            if (direction != cameFrom && grid.isOpen(cell, direction)) {
+                return direction;
+            }
+        }
+        return cameFrom;
+    }
+
+    private int getDegree(int cell) {
+        int degree = 0;
+        for (int direction = TOP; direction <= RIGHT; direction++) {
+            if (grid.isOpen(cell, direction)) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    private void push(int distance, int node) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        long entry = (long) distance << 32 | node;
+        int i = heapSize++;
+        peakHeapSize = Math.max(peakHeapSize, heapSize);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    /**
+     * The up to two nodes a start or goal cell reaches along its corridor, with their distances and the
+     * direction leaving the cell towards each.
+     */
+    private static class Endpoint {
+        private final int[] nodes = new int[2];
+        private final int[] distances = new int[2];
+        private final int[] directions = new int[2];
+        private int count;
+        private int directDistance;
+        private int directDirection;
+
+        void add(int node, int distance, int direction) {
+            for (int i = 0; i < count; i++) {
+                if (nodes[i] == node) {
+                    if (distance < distances[i]) {
+                        distances[i] = distance;
+                        directions[i] = direction;
+                    }
+                    return;
+                }
+            }
+            nodes[count] = node;
+            distances[count] = distance;
+            directions[count] = direction;
+            count++;
+        }
+    }
+}
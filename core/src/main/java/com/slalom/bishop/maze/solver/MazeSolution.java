@@ -0,0 +1,37 @@
+package com.slalom.bishop.maze.solver;
+
+import lombok.Getter;
+
+/**
+ * Result of a {@link MazeSolver} run: the path from start to goal as cell indices (empty if the goal
+ * is unreachable), the number of cells the solver visited to find it and the largest number of cells
+ * its queue, heap or frontier held at once.
+ */
+public class MazeSolution {
+    private static final int[] NO_PATH = new int[0];
+
+    @Getter private final int[] path;
+    @Getter private final int visitedCells;
+    @Getter private final int peakFrontier;
+
+    public MazeSolution(int[] path, int visitedCells) {
+        this(path, visitedCells, 0);
+    }
+
+    public MazeSolution(int[] path, int visitedCells, int peakFrontier) {
+        this.path = path != null ? path : NO_PATH;
+        this.visitedCells = visitedCells;
+        this.peakFrontier = peakFrontier;
+    }
+
+    public boolean hasPath() {
+        return path.length > 0;
+    }
+
+    /**
+     * @return the number of moves from start to goal, or -1 if there is no path
+     */
+    public int getLength() {
+        return path.length - 1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+
+/**
+ * Finds a shortest path between two cells of a {@link MazeGrid}.
+ * Implementations are iterative and only allocate primitive working arrays.
+ */
+public interface MazeSolver {
+    MazeSolution solve(MazeGrid grid, int startCell, int goalCell);
+}
@@ -0,0 +1,200 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.IntStorage;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * Level-synchronous breadth-first search on a {@link ForkJoinPool}. Each level's frontier is cut into one slice
+ * per worker; a worker claims unvisited neighbours in an atomic visited bitset, records their parent and appends
+ * them to its own frontier buffer, and the buffers are concatenated into the next level's frontier. A cell's
+ * parent is only written by the worker that claimed it and only read after the pool has joined, so the parent
+ * storage from the grid's allocator needs no synchronization. Frontiers narrower than the parallel threshold
+ * are expanded on the calling thread, as a perfect maze's frontier is often too narrow to be worth splitting.
+ * ForkJoinPool needs API 21 on Android, so this is meant for the JVM tools and newer devices.
+ */
+public class ParallelBreadthFirstSolver implements MazeSolver {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+    private static final int INITIAL_FRONTIER_CAPACITY = 1024;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    public ParallelBreadthFirstSolver(ForkJoinPool pool) {
+        this(pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public ParallelBreadthFirstSolver(ForkJoinPool pool, int parallelThreshold) {
+        if (parallelThreshold <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be greater than zero");
+        }
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Times this solver against the sequential {@link BreadthFirstSolver} on the same maze.
+     */
+    public SolverSpeedup measureSpeedup(MazeGrid grid, int startCell, int goalCell, int runs) {
+        return SolverSpeedup.measure(new BreadthFirstSolver(), this, grid, startCell, goalCell, runs);
+    }
+
+    /**
+     * The visited cell count covers every level up to and including the goal's.
+     */
+    @Override
+    public MazeSolution solve(MazeGrid grid, int startCell, int goalCell) {
+        IntStorage parents = grid.getAllocator().allocateInts(grid.getCellCount());
+        AtomicIntegerArray visited = new AtomicIntegerArray((grid.getCellCount() + 31) >>> 5);
+        FrontierBuffer[] buffers = new FrontierBuffer[pool.getParallelism()];
+        for (int worker = 0; worker < buffers.length; worker++) {
+            buffers[worker] = new FrontierBuffer();
+        }
+
+        claim(visited, startCell);
+        parents.set(startCell, startCell);
+        int[] frontier = new int[INITIAL_FRONTIER_CAPACITY];
+        frontier[0] = startCell;
+        int frontierSize = 1;
+        int visitedCells = 1;
+        int peakFrontier = 1;
+
+        while (frontierSize > 0 && !isClaimed(visited, goalCell)) {
+            int workers = frontierSize < parallelThreshold ? 1 : buffers.length;
+            Level level = new Level(grid, visited, parents, frontier, frontierSize, buffers);
+            if (workers == 1) {
+                level.expand(0, 1);
+            } else {
+                pool.invoke(new LevelTask(level, workers, 0, workers));
+            }
+
+            int nextSize = 0;
+            for (int worker = 0; worker < workers; worker++) {
+                nextSize += buffers[worker].size;
+            }
+            if (nextSize > frontier.length) {
+                frontier = new int[Math.max(nextSize, frontier.length * 2)];
+            }
+            frontierSize = 0;
+            for (int worker = 0; worker < workers; worker++) {
+                System.arraycopy(buffers[worker].cells, 0, frontier, frontierSize, buffers[worker].size);
+                frontierSize += buffers[worker].size;
+            }
+            visitedCells += frontierSize;
+            peakFrontier = Math.max(peakFrontier, frontierSize);
+        }
+
+        int[] path = isClaimed(visited, goalCell) ? SolverPaths.build(parents, startCell, goalCell) : null;
+        return new MazeSolution(path, visitedCells, peakFrontier);
+    }
+
+    /**
+     * @return true if this call marked {@code cell} as visited, false if it already was
+     */
+    private static boolean claim(AtomicIntegerArray visited, int cell) {
+        int index = cell >>> 5;
+        int bit = 1 << (cell & 31);
+        while (true) {
+            int bits = visited.get(index);
+            if ((bits & bit) != 0) {
+                return false;
+            }
+            if (visited.compareAndSet(index, bits, bits | bit)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isClaimed(AtomicIntegerArray visited, int cell) {
+        return (visited.get(cell >>> 5) & 1 << (cell & 31)) != 0;
+    }
+
+    /**
+     * One BFS level: the frontier being expanded and the per-worker buffers collecting the next one.
+     */
+    private static class Level {
+        private final MazeGrid grid;
+        private final AtomicIntegerArray visited;
+        private final IntStorage parents;
+        private final int[] frontier;
+        private final int frontierSize;
+        private final FrontierBuffer[] buffers;
+
+        Level(MazeGrid grid, AtomicIntegerArray visited, IntStorage parents, int[] frontier, int frontierSize, FrontierBuffer[] buffers) {
+            this.grid = grid;
+            this.visited = visited;
+            this.parents = parents;
+            this.frontier = frontier;
+            this.frontierSize = frontierSize;
+            this.buffers = buffers;
+        }
+
+        /**
+         * Expands the {@code worker}th of {@code workers} equal slices of the frontier into that worker's buffer.
+         */
+        void expand(int worker, int workers) {
+            FrontierBuffer buffer = buffers[worker];
+            buffer.size = 0;
+            int from = (int) ((long) frontierSize * worker / workers);
+            int to = (int) ((long) frontierSize * (worker + 1) / workers);
+            for (int i = from; i < to; i++) {
+                int cell = frontier[i];
+                for (int direction = TOP; direction <= RIGHT; direction++) {
+                    if (grid.isOpen(cell, direction)) {
+                        int adjacentCell = grid.getAdjacentCell(cell, direction);
+                        if (claim(visited, adjacentCell)) {
+                            parents.set(adjacentCell, cell);
+                            buffer.add(adjacentCell);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Level level;
+        private final int workers;
+        private final int fromWorker, toWorker;
+
+        LevelTask(Level level, int workers, int fromWorker, int toWorker) {
+            this.level = level;
+            this.workers = workers;
+            this.fromWorker = fromWorker;
+            this.toWorker = toWorker;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWorker - fromWorker == 1) {
+                level.expand(fromWorker, workers);
+            } else {
+                int middleWorker = (fromWorker + toWorker) >>> 1;
+                invokeAll(new LevelTask(level, workers, fromWorker, middleWorker),
+                        new LevelTask(level, workers, middleWorker, toWorker));
+            }
+        }
+    }
+
+    private static class FrontierBuffer {
+        private int[] cells = new int[INITIAL_FRONTIER_CAPACITY];
+        private int size;
+
+        void add(int cell) {
+            if (size == cells.length) {
+                int[] grownCells = new int[cells.length * 2];
+                System.arraycopy(cells, 0, grownCells, 0, size);
+                cells = grownCells;
+            }
+            cells[size++] = cell;
+        }
+    }
+}
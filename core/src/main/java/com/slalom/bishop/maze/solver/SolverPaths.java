@@ -0,0 +1,31 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.storage.IntStorage;
+
+/**
+ * Path rebuilding helpers shared by the solvers.
+ */
+final class SolverPaths {
+
+    private SolverPaths() {
+    }
+
+    /**
+     * Follows {@code parents} back from {@code goalCell} and returns the cells from start to goal.
+     * The start cell must be its own parent.
+     */
+    static int[] build(IntStorage parents, int startCell, int goalCell) {
+        int length = 1;
+        for (int cell = goalCell; cell != startCell; cell = parents.get(cell)) {
+            length++;
+        }
+
+        int[] path = new int[length];
+        int cell = goalCell;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = parents.get(cell);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,61 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+
+import java.util.Locale;
+
+import lombok.Getter;
+
+/**
+ * Wall-clock comparison of two solvers on the same maze, start and goal. Each solver runs the given number
+ * of times and its fastest run counts, which keeps JIT warm-up and GC pauses out of the ratio.
+ */
+public class SolverSpeedup {
+    @Getter private final long baselineNanos, candidateNanos;
+    @Getter private final MazeSolution solution;
+
+    private SolverSpeedup(long baselineNanos, long candidateNanos, MazeSolution solution) {
+        this.baselineNanos = baselineNanos;
+        this.candidateNanos = candidateNanos;
+        this.solution = solution;
+    }
+
+    /**
+     * @throws IllegalStateException if the solvers disagree on the shortest path length
+     */
+    public static SolverSpeedup measure(MazeSolver baseline, MazeSolver candidate, MazeGrid grid,
+                                        int startCell, int goalCell, int runs) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("Runs must be greater than zero");
+        }
+        long baselineNanos = Long.MAX_VALUE, candidateNanos = Long.MAX_VALUE;
+        MazeSolution baselineSolution = null, candidateSolution = null;
+        for (int run = 0; run < runs; run++) {
+            long startTime = System.nanoTime();
+            baselineSolution = baseline.solve(grid, startCell, goalCell);
+            baselineNanos = Math.min(baselineNanos, System.nanoTime() - startTime);
+
+            startTime = System.nanoTime();
+            candidateSolution = candidate.solve(grid, startCell, goalCell);
+            candidateNanos = Math.min(candidateNanos, System.nanoTime() - startTime);
+        }
+        if (baselineSolution.getLength() != candidateSolution.getLength()) {
+            throw new IllegalStateException("Solvers disagree: path length " + baselineSolution.getLength()
+                    + " vs " + candidateSolution.getLength());
+        }
+        return new SolverSpeedup(baselineNanos, candidateNanos, candidateSolution);
+    }
+
+    /**
+     * @return how many times faster the candidate solved the maze than the baseline
+     */
+    public double getSpeedup() {
+        return (double) baselineNanos / candidateNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%.2f ms vs %.2f ms baseline, %.2fx speedup",
+                candidateNanos / 1e6, baselineNanos / 1e6, getSpeedup());
+    }
+}
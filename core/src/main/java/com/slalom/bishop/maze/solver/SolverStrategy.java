@@ -0,0 +1,16 @@
+package com.slalom.bishop.maze.solver;
+
+import java.util.concurrent.ForkJoinPool;
+
+public enum SolverStrategy {
+    BREADTH_FIRST, A_STAR, BIDIRECTIONAL, PARALLEL_BREADTH_FIRST;
+
+    public MazeSolver createSolver() {
+        switch (this) {
+            case A_STAR: return new AStarSolver();
+            case BIDIRECTIONAL: return new BidirectionalSolver();
+            case PARALLEL_BREADTH_FIRST: return new ParallelBreadthFirstSolver(ForkJoinPool.commonPool());
+            default: return new BreadthFirstSolver();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.storage.CellStorage;
+import com.slalom.bishop.maze.storage.IntStorage;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+
+import lombok.Getter;
+
+import static com.slalom.bishop.maze.MazeGrid.NO_CELL;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.TOP;
+
+/**
+ * Path index for perfect mazes. A perfect maze is a spanning tree, so the only path between two cells runs through
+ * their lowest common ancestor, and its length is {@code depth(a) + depth(b) - 2 * depth(ancestor)}. Building the
+ * index roots every connected part of the maze at its first cell with one breadth-first pass, storing each cell's
+ * depth, the direction to its parent and a jump pointer. Jump pointers skip ancestors in a skew-binary pattern, so
+ * any ancestor is reached in O(log n) jumps like binary lifting, but with one int per cell instead of log n.
+ * {@link #getDistance} is O(log n) and {@link #solve} walks up from both cells, O(path length).
+ * The index reflects the grid when it was built and rejects mazes with loops, where the tree path may not be shortest.
+ */
+public class TreeIndex implements MazeSolver {
+    private static final byte NO_PARENT = -1;
+
+    @Getter private final MazeGrid grid;
+    @Getter private final int treeCount;
+    private final IntStorage depths;
+    private final IntStorage jumps;
+    private final CellStorage parentDirections;
+
+    public TreeIndex(MazeGrid grid) {
+        this.grid = grid;
+        StorageAllocator allocator = grid.getAllocator();
+        int cellCount = grid.getCellCount();
+        depths = allocator.allocateInts(cellCount);
+        jumps = allocator.allocateInts(cellCount);
+        parentDirections = allocator.allocateCells(cellCount);
+        depths.fill(-1);
+
+        IntStorage queue = allocator.allocateInts(cellCount);
+        int trees = 0;
+        for (int root = 0; root < cellCount; root++) {
+            if (depths.get(root) < 0) {
+                indexTree(root, queue);
+                trees++;
+            }
+        }
+        treeCount = trees;
+    }
+
+    /**
+     * @return the number of moves between the two cells, or -1 if they are in parts of the maze that are walled off
+     * from each other
+     */
+    public int getDistance(int startCell, int goalCell) {
+        int ancestor = findCommonAncestor(startCell, goalCell);
+        if (ancestor == NO_CELL) {
+            return -1;
+        }
+        return depths.get(startCell) + depths.get(goalCell) - 2 * depths.get(ancestor);
+    }
+
+    /**
+     * Reads the path off the tree. The visited cell count is the length of the path, as no other cells are touched.
+     *
+     * @param grid the grid this index was built from
+     */
+    @Override
+    public MazeSolution solve(MazeGrid grid, int startCell, int goalCell) {
+        if (grid != this.grid) {
+            throw new IllegalArgumentException("Tree index was built for a different grid");
+        }
+        int ancestor = findCommonAncestor(startCell, goalCell);
+        if (ancestor == NO_CELL) {
+            return new MazeSolution(null, 0);
+        }
+        int ancestorDepth = depths.get(ancestor);
+        int startSteps = depths.get(startCell) - ancestorDepth;
+        int[] path = new int[startSteps + depths.get(goalCell) - ancestorDepth + 1];
+        for (int i = 0, cell = startCell; i <= startSteps; i++, cell = getParent(cell)) {
+            path[i] = cell;
+        }
+        for (int i = path.length - 1, cell = goalCell; i > startSteps; i--, cell = getParent(cell)) {
+            path[i] = cell;
+        }
+        return new MazeSolution(path, path.length);
+    }
+
+    /**
+     * @return the cell one step closer to the root of {@code cell}'s tree, or {@link MazeGrid#NO_CELL} for a root
+     */
+    public int getParent(int cell) {
+        int direction = parentDirections.get(cell);
+        return direction != NO_PARENT ? grid.getAdjacentCell(cell, direction) : NO_CELL;
+    }
+
+    public int getDepth(int cell) {
+        return depths.get(cell);
+    }
+
+    /**
+     * Lifts the deeper cell to the other's depth, then lifts both together. Jump pointers of cells at the same
+     * depth skip the same number of levels, so the two cells take their jumps together unless a jump would pass
+     * the common ancestor, in which case both take a single step.
+     *
+     * @return the lowest common ancestor, or {@link MazeGrid#NO_CELL} if the cells are in different trees
+     */
+    public int findCommonAncestor(int cell, int otherCell) {
+        if (depths.get(cell) < depths.get(otherCell)) {
+            int swap = cell;
+            cell = otherCell;
+            otherCell = swap;
+        }
+        int targetDepth = depths.get(otherCell);
+        while (depths.get(cell) > targetDepth) {
+            int jump = jumps.get(cell);
+            cell = depths.get(jump) >= targetDepth ? jump : getParent(cell);
+        }
+        while (cell != otherCell) {
+            if (depths.get(cell) == 0) {
+                return NO_CELL;
+            }
+            int jump = jumps.get(cell);
+            int otherJump = jumps.get(otherCell);
+            if (jump != otherJump) {
+                cell = jump;
+                otherCell = otherJump;
+            } else {
+                cell = getParent(cell);
+                otherCell = getParent(otherCell);
+            }
+        }
+        return cell;
+    }
+
+    /**
+     * Breadth-first pass over one tree. Parents are dequeued before their children, so a child's jump pointer
+     * can be derived from its parent's: it skips twice as far as the parent's jump when the parent's jump and
+     * the one after it skip the same distance, and otherwise just points at the parent.
+     */
+    private void indexTree(int root, IntStorage queue) {
+        int head = 0, tail = 0;
+        depths.set(root, 0);
+        jumps.set(root, root);
+        parentDirections.set(root, NO_PARENT);
+        queue.set(tail++, root);
+        while (head < tail) {
+            int cell = queue.get(head++);
+            int depth = depths.get(cell);
+            int parentDirection = parentDirections.get(cell);
+            int jump = jumps.get(cell);
+            int jumpOfJump = jumps.get(jump);
+            boolean isEvenJump = depth - depths.get(jump) == depths.get(jump) - depths.get(jumpOfJump);
+            int childJump = isEvenJump ? jumpOfJump : cell;
+
+            for (int direction = TOP; direction <= RIGHT; direction++) {
+                if (direction == parentDirection || !grid.isOpen(cell, direction)) {
+                    continue;
+                }
+                int child = grid.getAdjacentCell(cell, direction);
+                if (depths.get(child) >= 0) {
+                    throw new IllegalArgumentException("Maze has a loop at cell " + child + ", it is not a tree");
+                }
+                depths.set(child, depth + 1);
+                jumps.set(child, childJump);
+                parentDirections.set(child, (byte) MazeGrid.getOppositeDirection(direction));
+                queue.set(tail++, child);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.slalom.bishop.maze.storage;
+
+import java.util.Arrays;
+
+/**
+ * Default heap storage: a plain byte array.
+ */
+public class ArrayCellStorage implements CellStorage {
+    private final byte[] cells;
+
+    public ArrayCellStorage(int size) {
+        cells = new byte[size];
+    }
+
+    @Override
+    public int size() {
+        return cells.length;
+    }
+
+    @Override
+    public byte get(int cell) {
+        return cells[cell];
+    }
+
+    @Override
+    public void set(int cell, byte value) {
+        cells[cell] = value;
+    }
+
+    @Override
+    public void fill(byte value) {
+        Arrays.fill(cells, value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.slalom.bishop.maze.storage;
+
+import java.util.Arrays;
+
+/**
+ * Default heap storage: a plain int array.
+ */
+public class ArrayIntStorage implements IntStorage {
+    private final int[] values;
+
+    public ArrayIntStorage(int size) {
+        values = new int[size];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public int get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void set(int index, int value) {
+        values[index] = value;
+    }
+
+    @Override
+    public void fill(int value) {
+        Arrays.fill(values, value);
+    }
+}
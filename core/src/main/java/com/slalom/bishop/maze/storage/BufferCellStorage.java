@@ -0,0 +1,38 @@
+package com.slalom.bishop.maze.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cell storage in a direct or memory-mapped buffer, outside the Java heap.
+ */
+public class BufferCellStorage implements CellStorage {
+    private final ByteBuffer cells;
+    private final int size;
+
+    public BufferCellStorage(ByteBuffer cells) {
+        this.cells = cells;
+        this.size = cells.capacity();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int cell) {
+        return cells.get(cell);
+    }
+
+    @Override
+    public void set(int cell, byte value) {
+        cells.put(cell, value);
+    }
+
+    @Override
+    public void fill(byte value) {
+        for (int cell = 0; cell < size; cell++) {
+            cells.put(cell, value);
+        }
+    }
+}
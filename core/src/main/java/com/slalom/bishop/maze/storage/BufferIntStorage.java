@@ -0,0 +1,66 @@
+package com.slalom.bishop.maze.storage;
+
+import java.nio.IntBuffer;
+
+/**
+ * Int storage in direct or memory-mapped buffers. A single buffer is limited to 2 GB, so the values are
+ * split across chunks of {@link #CHUNK_SIZE} ints, selected by the high bits of the index.
+ */
+public class BufferIntStorage implements IntStorage {
+    static final int CHUNK_SHIFT = 26;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private final IntBuffer[] chunks;
+    private final int size;
+    private final int chunkShift;
+    private final int chunkMask;
+
+    /**
+     * @param chunks buffers of exactly {@link #CHUNK_SIZE} ints, except for the last one
+     */
+    public BufferIntStorage(IntBuffer[] chunks, int size) {
+        this(chunks, size, CHUNK_SHIFT);
+    }
+
+    /**
+     * Uses chunks of {@code 1 << chunkShift} ints, so tests can cross chunk boundaries with small sizes.
+     */
+    BufferIntStorage(IntBuffer[] chunks, int size, int chunkShift) {
+        this.chunks = chunks;
+        this.size = size;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1 << chunkShift) - 1;
+    }
+
+    static int getChunkCount(int size, int chunkShift) {
+        return (int) (((long) size + (1 << chunkShift) - 1) >>> chunkShift);
+    }
+
+    static int getChunkSize(int size, int chunk, int chunkShift) {
+        return (int) Math.min(1 << chunkShift, size - ((long) chunk << chunkShift));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int index) {
+        return chunks[index >>> chunkShift].get(index & chunkMask);
+    }
+
+    @Override
+    public void set(int index, int value) {
+        chunks[index >>> chunkShift].put(index & chunkMask, value);
+    }
+
+    @Override
+    public void fill(int value) {
+        for (IntBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.capacity(); i++) {
+                chunk.put(i, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.slalom.bishop.maze.storage;
+
+/**
+ * Backing store for the one byte of wall bits and flags that {@link com.slalom.bishop.maze.MazeGrid} keeps per cell.
+ */
+public interface CellStorage {
+    int size();
+
+    byte get(int cell);
+
+    void set(int cell, byte value);
+
+    void fill(byte value);
+}
@@ -0,0 +1,14 @@
+package com.slalom.bishop.maze.storage;
+
+/**
+ * Fixed-size array of ints used for generator and solver working state, allocated by a {@link StorageAllocator}.
+ */
+public interface IntStorage {
+    int size();
+
+    int get(int index);
+
+    void set(int index, int value);
+
+    void fill(int value);
+}
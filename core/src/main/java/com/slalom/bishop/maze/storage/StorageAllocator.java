@@ -0,0 +1,119 @@
+package com.slalom.bishop.maze.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import lombok.Getter;
+
+/**
+ * Allocates the storage of a {@link com.slalom.bishop.maze.MazeGrid} and of the generators and solvers that
+ * run on it, so a maze created in one {@link StorageMode} keeps all of its large arrays in that mode.
+ * Mapped storage is backed by a temporary file that is deleted as soon as it has been mapped; the pages
+ * stay valid until the buffers are garbage collected.
+ */
+public class StorageAllocator {
+    public static final StorageAllocator HEAP = new StorageAllocator(StorageMode.HEAP, null, BufferIntStorage.CHUNK_SHIFT);
+    public static final StorageAllocator DIRECT = new StorageAllocator(StorageMode.DIRECT, null, BufferIntStorage.CHUNK_SHIFT);
+
+    @Getter private final StorageMode mode;
+    private final File directory;
+    private final int intChunkShift;
+
+    private StorageAllocator(StorageMode mode, File directory, int intChunkShift) {
+        this.mode = mode;
+        this.directory = directory;
+        this.intChunkShift = intChunkShift;
+    }
+
+    /**
+     * @param directory where the temporary backing files are created
+     */
+    public static StorageAllocator mapped(File directory) {
+        return new StorageAllocator(StorageMode.MAPPED, directory, BufferIntStorage.CHUNK_SHIFT);
+    }
+
+    /**
+     * Mapped storage goes to {@code java.io.tmpdir}, which is the app's cache directory on Android.
+     */
+    public static StorageAllocator forMode(StorageMode mode) {
+        switch (mode) {
+            case DIRECT: return DIRECT;
+            case MAPPED: return mapped(new File(System.getProperty("java.io.tmpdir")));
+            default: return HEAP;
+        }
+    }
+
+    /**
+     * Same as {@code allocator}, but splits buffer-backed int storage into chunks of {@code 1 << intChunkShift}
+     * ints, so tests can cross chunk boundaries without allocating gigabytes.
+     */
+    static StorageAllocator withIntChunkShift(StorageAllocator allocator, int intChunkShift) {
+        return new StorageAllocator(allocator.mode, allocator.directory, intChunkShift);
+    }
+
+    public CellStorage allocateCells(int size) {
+        switch (mode) {
+            case DIRECT: return new BufferCellStorage(ByteBuffer.allocateDirect(size));
+            case MAPPED: return new BufferCellStorage(map(new long[] { size })[0]);
+            default: return new ArrayCellStorage(size);
+        }
+    }
+
+    public IntStorage allocateInts(int size) {
+        if (mode == StorageMode.HEAP) {
+            return new ArrayIntStorage(size);
+        }
+
+        int chunkCount = BufferIntStorage.getChunkCount(size, intChunkShift);
+        long[] chunkBytes = new long[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunkBytes[chunk] = (long) BufferIntStorage.getChunkSize(size, chunk, intChunkShift) * 4;
+        }
+        ByteBuffer[] buffers = mode == StorageMode.MAPPED ? map(chunkBytes) : allocateDirect(chunkBytes);
+
+        IntBuffer[] chunks = new IntBuffer[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunks[chunk] = buffers[chunk].order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return new BufferIntStorage(chunks, size, intChunkShift);
+    }
+
+    private static ByteBuffer[] allocateDirect(long[] sizes) {
+        ByteBuffer[] buffers = new ByteBuffer[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect((int) sizes[i]);
+        }
+        return buffers;
+    }
+
+    /**
+     * Maps consecutive regions of one new temporary file.
+     */
+    private ByteBuffer[] map(long[] sizes) {
+        File file = null;
+        try {
+            file = File.createTempFile("maze", ".storage", directory);
+            ByteBuffer[] buffers = new ByteBuffer[sizes.length];
+            try (RandomAccessFile backingFile = new RandomAccessFile(file, "rw")) {
+                FileChannel channel = backingFile.getChannel();
+                long position = 0;
+                for (int i = 0; i < sizes.length; i++) {
+                    buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, sizes[i]);
+                    position += sizes[i];
+                }
+            }
+            return buffers;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map maze storage in " + directory, e);
+        } finally {
+            if (file != null && !file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.slalom.bishop.maze.storage;
+
+/**
+ * Where a maze and its working state live: HEAP arrays, DIRECT buffers (bounded by the VM's direct
+ * memory limit, which defaults to the heap size), or MAPPED temporary files paged in and out by the OS.
+ */
+public enum StorageMode {
+    HEAP, DIRECT, MAPPED
+}
@@ -0,0 +1,62 @@
+package com.slalom.bishop.maze;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CellChangesTest {
+
+    @Test
+    public void everyTracker_seesWallRemovalOnBothSides() throws Exception {
+        MazeGrid grid = new MazeGrid(3, 4);
+        CellChanges first = new CellChanges(8);
+        CellChanges second = new CellChanges(8);
+        grid.addChangeTracker(first);
+        grid.addChangeTracker(second);
+        int[] changedCells = new int[8];
+        assertEquals(CellChanges.ALL_CELLS, first.drainTo(changedCells));
+        assertEquals(CellChanges.ALL_CELLS, second.drainTo(changedCells));
+
+        grid.removeWall(5, MazeGrid.RIGHT);
+        for (CellChanges changes : new CellChanges[]{first, second}) {
+            assertEquals(2, changes.drainTo(changedCells));
+            assertEquals(5, changedCells[0]);
+            assertEquals(6, changedCells[1]);
+            assertTrue(changes.isEmpty());
+        }
+    }
+
+    @Test
+    public void removedTracker_stopsReceivingChanges() throws Exception {
+        MazeGrid grid = new MazeGrid(3, 4);
+        CellChanges kept = new CellChanges(8);
+        CellChanges removed = new CellChanges(8);
+        grid.addChangeTracker(kept);
+        grid.addChangeTracker(removed);
+        int[] changedCells = new int[8];
+        kept.drainTo(changedCells);
+        removed.drainTo(changedCells);
+
+        grid.removeChangeTracker(removed);
+        grid.setFlag(7, MazeGrid.VISITED);
+        assertTrue(removed.isEmpty());
+        assertEquals(1, kept.drainTo(changedCells));
+        assertEquals(7, changedCells[0]);
+    }
+
+    @Test
+    public void overflow_collapsesToAllCells() throws Exception {
+        MazeGrid grid = new MazeGrid(4, 4);
+        CellChanges changes = new CellChanges(3);
+        grid.addChangeTracker(changes);
+        int[] changedCells = new int[3];
+        changes.drainTo(changedCells);
+
+        for (int cell = 0; cell < 4; cell++) {
+            grid.setFlag(cell, MazeGrid.VISITED);
+        }
+        assertEquals(CellChanges.ALL_CELLS, changes.drainTo(changedCells));
+        assertTrue(changes.isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.StorageAllocator;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DisjointSetTest {
+    private static final int SIZE = 500;
+
+    @Test
+    public void randomUnions_matchNaiveLabels() throws Exception {
+        for (StorageMode mode : StorageMode.values()) {
+            DisjointSet sets = new DisjointSet(SIZE, StorageAllocator.forMode(mode));
+            int[] labels = new int[SIZE];
+            for (int element = 0; element < SIZE; element++) {
+                labels[element] = element;
+            }
+            Random random = new Random(1);
+            for (int i = 0; i < 2000; i++) {
+                int element = random.nextInt(SIZE);
+                int otherElement = random.nextInt(SIZE);
+                boolean isSeparate = labels[element] != labels[otherElement];
+                assertEquals(mode.name(), isSeparate, sets.union(element, otherElement));
+                relabel(labels, labels[otherElement], labels[element]);
+
+                int probe = random.nextInt(SIZE);
+                int otherProbe = random.nextInt(SIZE);
+                assertEquals(mode.name(), labels[probe] == labels[otherProbe], sets.isConnected(probe, otherProbe));
+            }
+            assertSameSets(sets, labels);
+        }
+    }
+
+    @Test
+    public void find_compressesPathToRoot() throws Exception {
+        // Joining equal-rank pairs, then pairs of pairs and so on, builds the deepest tree union by rank allows
+        DisjointSet sets = new DisjointSet(1024);
+        for (int width = 1; width < 1024; width *= 2) {
+            for (int element = 0; element < 1024; element += 2 * width) {
+                assertTrue(sets.union(element, element + width));
+            }
+        }
+        int deepestElement = 0;
+        int deepestDepth = 0;
+        for (int element = 0; element < 1024; element++) {
+            int depth = getDepth(sets, element);
+            if (depth > deepestDepth) {
+                deepestElement = element;
+                deepestDepth = depth;
+            }
+        }
+        assertEquals(10, deepestDepth);
+
+        int[] path = new int[deepestDepth];
+        for (int i = 0, element = deepestElement; i < deepestDepth; i++, element = sets.getParent(element)) {
+            path[i] = element;
+        }
+        int root = sets.find(deepestElement);
+        for (int element : path) {
+            assertEquals(root, sets.getParent(element));
+        }
+        for (int element = 0; element < 1024; element++) {
+            assertEquals(root, sets.find(element));
+        }
+        assertFalse(sets.union(0, 1023));
+    }
+
+    @Test
+    public void reset_makesSingletons() throws Exception {
+        DisjointSet sets = new DisjointSet(10);
+        for (int element = 1; element < 10; element++) {
+            sets.union(0, element);
+        }
+        sets.reset();
+        for (int element = 0; element < 10; element++) {
+            assertEquals(element, sets.find(element));
+        }
+        assertTrue(sets.union(3, 4));
+    }
+
+    private static int getDepth(DisjointSet sets, int element) {
+        int depth = 0;
+        while (sets.getParent(element) != element) {
+            element = sets.getParent(element);
+            depth++;
+        }
+        return depth;
+    }
+
+    private static void relabel(int[] labels, int from, int to) {
+        for (int element = 0; element < labels.length; element++) {
+            if (labels[element] == from) {
+                labels[element] = to;
+            }
+        }
+    }
+
+    private static void assertSameSets(DisjointSet sets, int[] labels) {
+        for (int element = 0; element < labels.length; element++) {
+            int root = sets.find(element);
+            assertEquals(labels[element], labels[root]);
+            assertEquals(root, sets.find(root));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.storage.StorageAllocator;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedCellSetTest {
+    private static final int CELL_COUNT = 300;
+
+    @Test
+    public void randomOperations_matchHashSet() throws Exception {
+        for (StorageMode mode : StorageMode.values()) {
+            IndexedCellSet cells = new IndexedCellSet(CELL_COUNT, StorageAllocator.forMode(mode));
+            Set<Integer> expected = new HashSet<>();
+            Random random = new Random(4);
+            for (int i = 0; i < 5000; i++) {
+                int cell = random.nextInt(CELL_COUNT);
+                switch (random.nextInt(4)) {
+                    case 0:
+                    case 1:
+                        assertEquals(mode.name(), expected.add(cell), cells.add(cell));
+                        break;
+                    case 2:
+                        assertEquals(mode.name(), expected.remove(cell), cells.remove(cell));
+                        break;
+                    default:
+                        if (!expected.isEmpty()) {
+                            int removedCell = cells.removeRandom(random);
+                            assertTrue(mode.name(), expected.remove(removedCell));
+                            assertFalse(cells.contains(removedCell));
+                        }
+                        break;
+                }
+                assertEquals(mode.name(), expected.contains(cell), cells.contains(cell));
+                assertEquals(expected.size(), cells.size());
+            }
+            assertSameMembers(expected, cells);
+        }
+    }
+
+    @Test
+    public void growsPastInitialCapacity_toEveryCell() throws Exception {
+        IndexedCellSet cells = new IndexedCellSet(CELL_COUNT);
+        Set<Integer> expected = new HashSet<>();
+        for (int cell = CELL_COUNT - 1; cell >= 0; cell--) {
+            assertTrue(cells.add(cell));
+            expected.add(cell);
+        }
+        assertFalse(cells.add(0));
+        assertSameMembers(expected, cells);
+
+        for (int cell = 0; cell < CELL_COUNT; cell += 2) {
+            assertTrue(cells.remove(cell));
+            expected.remove(cell);
+        }
+        assertFalse(cells.remove(0));
+        assertSameMembers(expected, cells);
+    }
+
+    @Test
+    public void removeRandom_emptiesSetWithoutRepeats() throws Exception {
+        IndexedCellSet cells = new IndexedCellSet(100);
+        for (int cell = 0; cell < 100; cell++) {
+            cells.add(cell);
+        }
+        boolean[] removed = new boolean[100];
+        Random random = new Random(8);
+        while (!cells.isEmpty()) {
+            int cell = cells.removeRandom(random);
+            assertFalse(removed[cell]);
+            removed[cell] = true;
+        }
+        for (boolean isRemoved : removed) {
+            assertTrue(isRemoved);
+        }
+    }
+
+    @Test
+    public void clear_forgetsMembers() throws Exception {
+        IndexedCellSet cells = new IndexedCellSet(50);
+        for (int cell = 0; cell < 50; cell += 3) {
+            cells.add(cell);
+        }
+        cells.clear();
+        assertTrue(cells.isEmpty());
+        for (int cell = 0; cell < 50; cell++) {
+            assertFalse(cells.contains(cell));
+        }
+        assertTrue(cells.add(3));
+        assertEquals(1, cells.size());
+    }
+
+    /**
+     * Every slot in {@code [0, size())} holds a distinct member, and those are exactly the expected cells.
+     */
+    private static void assertSameMembers(Set<Integer> expected, IndexedCellSet cells) {
+        assertEquals(expected.size(), cells.size());
+        Set<Integer> members = new HashSet<>();
+        for (int slot = 0; slot < cells.size(); slot++) {
+            assertTrue(members.add(cells.get(slot)));
+        }
+        assertEquals(expected, members);
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            assertEquals(expected.contains(cell), cells.contains(cell));
+        }
+    }
+}
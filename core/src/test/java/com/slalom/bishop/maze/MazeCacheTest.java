@@ -0,0 +1,82 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MazeCacheTest {
+
+    @Test
+    public void overBudget_evictsLeastRecentlyUsed() throws Exception {
+        MazeCache cache = new MazeCache(300);
+        MazeGrid first = new MazeGrid(10, 10);
+        MazeGrid second = new MazeGrid(10, 10);
+        MazeGrid third = new MazeGrid(10, 10);
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 1, StorageMode.HEAP, first);
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 2, StorageMode.HEAP, second);
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 3, StorageMode.HEAP, third);
+        assertEquals(3, cache.size());
+
+        // Reading the first maze makes the second the least recently used
+        assertSame(first, cache.get(MazeAlgorithm.PRIM, 10, 10, 1, StorageMode.HEAP));
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 4, StorageMode.HEAP, new MazeGrid(10, 10));
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(MazeAlgorithm.PRIM, 10, 10, 2, StorageMode.HEAP));
+        assertSame(first, cache.get(MazeAlgorithm.PRIM, 10, 10, 1, StorageMode.HEAP));
+        assertSame(third, cache.get(MazeAlgorithm.PRIM, 10, 10, 3, StorageMode.HEAP));
+    }
+
+    @Test
+    public void largeGrid_evictsSeveralEntries() throws Exception {
+        MazeCache cache = new MazeCache(300);
+        for (int seed = 0; seed < 3; seed++) {
+            cache.put(MazeAlgorithm.KRUSKAL, 10, 10, seed, StorageMode.HEAP, new MazeGrid(10, 10));
+        }
+        MazeGrid large = new MazeGrid(15, 15);
+        cache.put(MazeAlgorithm.KRUSKAL, 15, 15, 0, StorageMode.HEAP, large);
+
+        assertEquals(1, cache.size());
+        assertSame(large, cache.get(MazeAlgorithm.KRUSKAL, 15, 15, 0, StorageMode.HEAP));
+    }
+
+    @Test
+    public void gridLargerThanCache_isNotCached() throws Exception {
+        MazeCache cache = new MazeCache(300);
+        MazeGrid small = new MazeGrid(10, 10);
+        cache.put(MazeAlgorithm.BACKTRACK, 10, 10, 0, StorageMode.HEAP, small);
+        cache.put(MazeAlgorithm.BACKTRACK, 20, 20, 0, StorageMode.HEAP, new MazeGrid(20, 20));
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(MazeAlgorithm.BACKTRACK, 20, 20, 0, StorageMode.HEAP));
+        assertSame(small, cache.get(MazeAlgorithm.BACKTRACK, 10, 10, 0, StorageMode.HEAP));
+    }
+
+    @Test
+    public void replacingEntry_countsItsCellsOnce() throws Exception {
+        MazeCache cache = new MazeCache(200);
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 0, StorageMode.HEAP, new MazeGrid(10, 10));
+        MazeGrid replacement = new MazeGrid(10, 10);
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 0, StorageMode.HEAP, replacement);
+        cache.put(MazeAlgorithm.PRIM, 10, 10, 1, StorageMode.HEAP, new MazeGrid(10, 10));
+
+        assertEquals(2, cache.size());
+        assertSame(replacement, cache.get(MazeAlgorithm.PRIM, 10, 10, 0, StorageMode.HEAP));
+    }
+
+    @Test
+    public void storageMode_isPartOfTheKey() throws Exception {
+        MazeCache cache = new MazeCache(1000);
+        MazeGrid heapGrid = new MazeGrid(10, 10);
+        cache.put(MazeAlgorithm.WILSON, 10, 10, 5, StorageMode.HEAP, heapGrid);
+
+        assertNull(cache.get(MazeAlgorithm.WILSON, 10, 10, 5, StorageMode.DIRECT));
+        assertNull(cache.get(MazeAlgorithm.WILSON, 10, 10, 5, StorageMode.MAPPED));
+        assertSame(heapGrid, cache.get(MazeAlgorithm.WILSON, 10, 10, 5, StorageMode.HEAP));
+    }
+}
@@ -0,0 +1,104 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.slalom.bishop.maze.MazeGrid.BACKTRACKING;
+import static com.slalom.bishop.maze.MazeGrid.BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.EXPLORING;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MazeGeneratorTest {
+    private static final int[][] SHAPES = {{1, 1}, {1, 17}, {17, 1}, {24, 20}, {60, 50}};
+
+    @Test
+    public void everyAlgorithm_generatesPerfectMaze() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            for (int[] shape : SHAPES) {
+                MazeGrid grid = new MazeGrid(shape[0], shape[1]);
+                algorithm.generate(grid, new Random(7));
+                assertPerfect(algorithm, grid);
+            }
+        }
+    }
+
+    @Test
+    public void stepping_matchesBatchGeneration() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid steppedGrid = new MazeGrid(24, 20);
+            MazeGenerator generator = algorithm.createGenerator(steppedGrid, new Random(11));
+            while (generator.step()) {
+                assertFalse(algorithm.name(), generator.isFinished());
+            }
+            generator.clearVisualIndicators();
+            assertTrue(algorithm.name(), generator.isFinished());
+            assertEquals(algorithm.name(), 0, generator.getProgress());
+
+            MazeGrid batchGrid = new MazeGrid(24, 20);
+            algorithm.generate(batchGrid, new Random(11));
+            for (int cell = 0; cell < batchGrid.getCellCount(); cell++) {
+                assertEquals(algorithm.name(), batchGrid.getWallBits(cell), steppedGrid.getWallBits(cell));
+                assertFalse(algorithm.name(), steppedGrid.hasFlag(cell, EXPLORING | BACKTRACKING));
+            }
+        }
+    }
+
+    @Test
+    public void batchGeneration_leavesIndicatorFlagsAlone() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid grid = new MazeGrid(24, 20) {
+                @Override
+                public void setFlag(int cell, int flag) {
+                    assertEquals(algorithm.name(), 0, flag & (EXPLORING | BACKTRACKING));
+                    super.setFlag(cell, flag);
+                }
+            };
+            algorithm.generate(grid, new Random(5));
+            assertPerfect(algorithm, grid);
+        }
+    }
+
+    @Test
+    public void stepping_highlightsEveryFrontierCell() throws Exception {
+        for (MazeAlgorithm algorithm : new MazeAlgorithm[] {MazeAlgorithm.PRIM, MazeAlgorithm.GROWING_TREE}) {
+            MazeGrid grid = new MazeGrid(24, 20);
+            MazeGenerator generator = algorithm.createGenerator(grid, new Random(3));
+            while (generator.step()) {
+                int highlightedCells = 0;
+                for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                    if (grid.hasFlag(cell, BACKTRACKING)) highlightedCells++;
+                }
+                assertEquals(algorithm.name(), generator.getFrontierSize(), highlightedCells);
+            }
+        }
+    }
+
+    /**
+     * A perfect maze is a spanning tree: exactly one less open wall than cells, and all cells connected.
+     */
+    private static void assertPerfect(MazeAlgorithm algorithm, MazeGrid grid) {
+        DisjointSet cellSets = new DisjointSet(grid.getCellCount());
+        int openWalls = 0;
+        int components = grid.getCellCount();
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            assertTrue(algorithm.name(), grid.hasFlag(cell, VISITED));
+            if (grid.isOpen(cell, RIGHT)) {
+                openWalls++;
+                if (cellSets.union(cell, cell + 1)) components--;
+            }
+            if (grid.isOpen(cell, BOTTOM)) {
+                openWalls++;
+                if (cellSets.union(cell, cell + grid.getColumns())) components--;
+            }
+        }
+        assertEquals(algorithm.name(), grid.getCellCount() - 1, openWalls);
+        assertEquals(algorithm.name(), 1, components);
+    }
+}
@@ -0,0 +1,67 @@
+package com.slalom.bishop.maze;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class MazeGeometryTest {
+    private static final int ROWS = 60, COLUMNS = 50;
+    private static final int FRAMES = 1000;
+
+    private MazeGrid grid;
+    private MazeGeometry geometry;
+    private float[] wallLines;
+    private float[] cellWallLines;
+
+    @Before
+    public void setUp() throws Exception {
+        grid = new MazeGrid(ROWS, COLUMNS);
+        geometry = new MazeGeometry();
+        geometry.setDimensions(1080, 1440, ROWS, COLUMNS);
+        wallLines = new float[MazeGeometry.getWallLinesCapacity(ROWS, COLUMNS)];
+        cellWallLines = new float[16];
+    }
+
+    @Test
+    public void closedWallLines_coverEveryWallOnce() throws Exception {
+        assertEquals(wallLines.length, geometry.putClosedWallLines(grid, wallLines));
+
+        new KruskalGenerator(grid, new Random(1)).generate();
+        int openWalls = grid.getCellCount() - 1;
+        assertEquals(wallLines.length - 4 * openWalls, geometry.putClosedWallLines(grid, wallLines));
+    }
+
+    @Test
+    public void framePreparation_allocatesNothing() throws Exception {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+        new PrimGenerator(grid, new Random(1)).generate();
+
+        prepareFrames(FRAMES);
+        long emptyStart = threads.getThreadAllocatedBytes(threadId);
+        long emptyBytes = threads.getThreadAllocatedBytes(threadId) - emptyStart;
+        long start = threads.getThreadAllocatedBytes(threadId);
+        prepareFrames(FRAMES);
+        long frameBytes = threads.getThreadAllocatedBytes(threadId) - start - emptyBytes;
+
+        assertEquals("bytes allocated over " + FRAMES + " frames", 0, frameBytes);
+    }
+
+    private void prepareFrames(int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            geometry.putClosedWallLines(grid, wallLines);
+            for (int cell = 0; cell < grid.getCellCount(); cell += 97) {
+                geometry.putCellWallLines(grid, cell, cellWallLines, 0);
+            }
+            geometry.putWallLine(frame % ROWS, frame % COLUMNS, MazeGrid.RIGHT, cellWallLines, 0);
+        }
+    }
+}
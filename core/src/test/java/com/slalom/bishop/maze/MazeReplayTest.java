@@ -0,0 +1,97 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MazeReplayTest {
+    private static final int STATE_FLAGS = MazeGrid.VISITED | MazeGrid.EXPLORING | MazeGrid.BACKTRACKING;
+
+    @Test
+    public void seek_matchesSteppingFromStart() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeEventLog log = record(algorithm, 14, 17, 5);
+            String[] states = stepThrough(log);
+            MazeReplay replay = new MazeReplay(log);
+            int length = replay.getLength();
+            assertTrue(algorithm.name(), length > 2 * 64);
+
+            // Forward and backward, within and across checkpoints, to both ends and past them
+            int[] targets = {length / 2, length / 2 + 1, length / 2 - 1, length / 2 - 150, 3, 64, 63, 65, 700,
+                    length, length - 1, length + 5, 0, -3, 129, 128, 127, length - 2, 1};
+            for (int target : targets) {
+                replay.seek(target);
+                int expected = Math.max(0, Math.min(target, length));
+                assertEquals(algorithm.name(), expected, replay.getPosition());
+                assertEquals(algorithm.name() + " seek " + target, states[expected], describe(replay));
+            }
+
+            Random random = new Random(3);
+            for (int i = 0; i < 200; i++) {
+                int target = random.nextInt(length + 1);
+                replay.seek(target);
+                assertEquals(algorithm.name() + " seek " + target, states[target], describe(replay));
+            }
+        }
+    }
+
+    @Test
+    public void stepAfterSeekingBack_continuesPlayback() throws Exception {
+        MazeEventLog log = record(MazeAlgorithm.BACKTRACK, 10, 10, 8);
+        String[] states = stepThrough(log);
+        MazeReplay replay = new MazeReplay(log);
+        replay.seek(replay.getLength());
+        replay.seek(40);
+        for (int position = 41; position <= replay.getLength(); position++) {
+            replay.step();
+            assertEquals(states[position], describe(replay));
+        }
+        assertTrue(replay.isFinished());
+    }
+
+    private static MazeEventLog record(MazeAlgorithm algorithm, int rows, int columns, long seed) {
+        MazeGrid grid = new MazeGrid(rows, columns);
+        MazeEventLog log = new MazeEventLog(rows, columns);
+        grid.setEventLog(log);
+        MazeGenerator generator = algorithm.createGenerator(grid, new Random(seed));
+        while (!generator.isFinished()) {
+            generator.step();
+        }
+        grid.setEventLog(null);
+        return log;
+    }
+
+    /**
+     * @return the replay state after each number of events, stepping a fresh replay from the start
+     */
+    private static String[] stepThrough(MazeEventLog log) {
+        MazeReplay replay = new MazeReplay(log);
+        String[] states = new String[log.size() + 1];
+        states[0] = describe(replay);
+        for (int position = 1; position <= log.size(); position++) {
+            replay.step();
+            states[position] = describe(replay);
+        }
+        return states;
+    }
+
+    private static String describe(MazeReplay replay) {
+        MazeGrid grid = replay.getGrid();
+        StringBuilder state = new StringBuilder().append(replay.getCurrentCell()).append(':');
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            int flags = 0;
+            for (int flag = 1; flag <= MazeGrid.BACKTRACKING; flag <<= 1) {
+                if ((flag & STATE_FLAGS) != 0 && grid.hasFlag(cell, flag)) {
+                    flags |= flag;
+                }
+            }
+            state.append((char) ('a' + (grid.getWallBits(cell) | flags)));
+        }
+        return state.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.slalom.bishop.maze;
+
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.solver.DistanceField;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.slalom.bishop.maze.MazeGrid.BOTTOM;
+import static com.slalom.bishop.maze.MazeGrid.RIGHT;
+import static com.slalom.bishop.maze.MazeGrid.VISITED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelMazeGeneratorTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final int TILE_SIZE = 16;
+
+    // One tile, exact multiples of the tile size, and sizes that leave partial tiles along either edge
+    private static final int[][] SHAPES = {{1, 1}, {10, 12}, {16, 16}, {32, 48}, {37, 50}, {17, 1}, {1, 70}, {33, 17}};
+
+    @Test
+    public void everyAlgorithm_generatesSpanningTree() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            ParallelMazeGenerator generator = new ParallelMazeGenerator(algorithm, TILE_SIZE, POOL);
+            for (int[] shape : SHAPES) {
+                MazeGrid grid = new MazeGrid(shape[0], shape[1]);
+                generator.generate(grid, new Random(shape[0] * 31 + shape[1]));
+                assertSpanningTree(algorithm.name() + " " + shape[0] + "x" + shape[1], grid);
+            }
+        }
+    }
+
+    @Test
+    public void sameSeed_givesSameMaze() throws Exception {
+        ParallelMazeGenerator generator = new ParallelMazeGenerator(MazeAlgorithm.PRIM, TILE_SIZE, POOL);
+        MazeGrid grid = new MazeGrid(45, 70);
+        generator.generate(grid, new Random(4));
+        MazeGrid otherGrid = new MazeGrid(45, 70);
+        generator.generate(otherGrid, new Random(4));
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            assertEquals(grid.getWallBits(cell), otherGrid.getWallBits(cell));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroTileSize_isRejected() {
+        new ParallelMazeGenerator(MazeAlgorithm.BACKTRACK, 0, POOL);
+    }
+
+    /**
+     * A spanning tree has one less open wall than cells, and every cell can be reached from cell 0.
+     */
+    private static void assertSpanningTree(String message, MazeGrid grid) {
+        int openWalls = 0;
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            assertTrue(message, grid.hasFlag(cell, VISITED));
+            if (grid.isOpen(cell, RIGHT)) openWalls++;
+            if (grid.isOpen(cell, BOTTOM)) openWalls++;
+        }
+        assertEquals(message, grid.getCellCount() - 1, openWalls);
+        assertEquals(message, grid.getCellCount(), DistanceField.compute(grid, 0).getReachableCells());
+    }
+}
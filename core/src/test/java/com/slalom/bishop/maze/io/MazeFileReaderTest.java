@@ -0,0 +1,206 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MazeFileReaderTest {
+    private static final int[][] SIZES = {{1, 1}, {1, 3}, {3, 5}, {7, 9}, {20, 16}, {33, 31}};
+
+    @Test
+    public void writeThenRead_roundTripsWalls() throws Exception {
+        File file = createTempFile();
+        MazeGrid[] grids = new MazeGrid[SIZES.length];
+        try (MazeFileWriter writer = new MazeFileWriter(new FileOutputStream(file))) {
+            for (int i = 0; i < SIZES.length; i++) {
+                grids[i] = new MazeGrid(SIZES[i][0], SIZES[i][1]);
+                MazeAlgorithm.KRUSKAL.generate(grids[i], new Random(i));
+                writer.writeMaze(new MazeFileHeader(SIZES[i][0], SIZES[i][1], 100 + i, MazeAlgorithm.KRUSKAL), grids[i]);
+            }
+        }
+
+        try (MazeFileReader reader = new MazeFileReader(file)) {
+            for (int i = 0; i < SIZES.length; i++) {
+                assertTrue(reader.hasNext());
+                MazeRecord record = reader.next();
+                assertEquals(SIZES[i][0], record.getHeader().getRows());
+                assertEquals(SIZES[i][1], record.getHeader().getColumns());
+                assertEquals(100 + i, record.getHeader().getSeed());
+                assertEquals(MazeAlgorithm.KRUSKAL, record.getHeader().getAlgorithm());
+                assertSameWalls(grids[i], record.getGrid());
+            }
+            assertFalse(reader.hasNext());
+        }
+        assertSameWalls(grids[0], MazeFileReader.load(file).getGrid());
+    }
+
+    @Test
+    public void writeCells_packsPartialBytesLikeWholeGrid() throws Exception {
+        for (int[] size : SIZES) {
+            MazeGrid grid = new MazeGrid(size[0], size[1]);
+            MazeAlgorithm.BACKTRACK.generate(grid, new Random(size[0]));
+            File file = createTempFile();
+            try (MazeFileWriter writer = new MazeFileWriter(new FileOutputStream(file))) {
+                // Uneven chunks so the pending byte carries over between calls
+                writer.beginMaze(new MazeFileHeader(size[0], size[1], 0, null));
+                byte[] walls = new byte[3];
+                for (int cell = 0; cell < grid.getCellCount(); ) {
+                    int count = Math.min(1 + cell % 3, grid.getCellCount() - cell);
+                    for (int i = 0; i < count; i++) {
+                        walls[i] = (byte) grid.getWallBits(cell + i);
+                    }
+                    writer.writeCells(walls, count);
+                    cell += count;
+                }
+                writer.endMaze();
+            }
+
+            assertEquals(MazeFileFormat.HEADER_SIZE + MazeFileFormat.getBodySize(size[0], size[1]), file.length());
+            MazeRecord record = MazeFileReader.load(file);
+            assertEquals(null, record.getHeader().getAlgorithm());
+            assertSameWalls(grid, record.getGrid());
+        }
+    }
+
+    @Test
+    public void skip_movesPastMazesWithoutMapping() throws Exception {
+        File file = writeMazes(3, 5, 3);
+        try (MazeFileReader reader = new MazeFileReader(file)) {
+            assertEquals(0, reader.skip().getSeed());
+            assertEquals(1, reader.skip().getSeed());
+            assertEquals(2, reader.next().getHeader().getSeed());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void oversizedMaze_canBeSkippedAfterNextRefusesIt() throws Exception {
+        File file = createTempFile();
+        MazeFileHeader oversized = new MazeFileHeader(3000000000L, 1, 9, MazeAlgorithm.ELLER);
+        try (MazeFileWriter writer = new MazeFileWriter(new FileOutputStream(file))) {
+            writer.beginMaze(oversized);
+        }
+        // Sparse body, so the test does not write 750 MB
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(MazeFileFormat.HEADER_SIZE + oversized.getBodySize());
+        }
+        MazeGrid grid = new MazeGrid(5, 7);
+        MazeAlgorithm.PRIM.generate(grid, new Random(2));
+        try (MazeFileWriter writer = new MazeFileWriter(new FileOutputStream(file, true))) {
+            writer.writeMaze(new MazeFileHeader(5, 7, 10, MazeAlgorithm.PRIM), grid);
+        }
+
+        try (MazeFileReader reader = new MazeFileReader(file)) {
+            try {
+                reader.next();
+                throw new AssertionError("Expected an IOException");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("too large to map"));
+            }
+            MazeFileHeader skipped = reader.skip();
+            assertEquals(3000000000L, skipped.getRows());
+            assertEquals(9, skipped.getSeed());
+
+            MazeRecord record = reader.next();
+            assertEquals(10, record.getHeader().getSeed());
+            assertSameWalls(grid, record.getGrid());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void next_rejectsTruncatedBody() throws Exception {
+        File file = writeMazes(7, 9, 1);
+        truncate(file, 1);
+        MazeFileReader.load(file);
+    }
+
+    @Test(expected = EOFException.class)
+    public void skip_rejectsTruncatedBody() throws Exception {
+        File file = writeMazes(7, 9, 2);
+        truncate(file, 1);
+        try (MazeFileReader reader = new MazeFileReader(file)) {
+            reader.skip();
+            reader.skip();
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void next_rejectsTruncatedHeader() throws Exception {
+        File file = writeMazes(2, 2, 1);
+        truncate(file, file.length() - MazeFileFormat.HEADER_SIZE / 2);
+        MazeFileReader.load(file);
+    }
+
+    @Test
+    public void next_rejectsBadMagic() throws Exception {
+        File file = writeMazes(2, 2, 1);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.writeInt(0x4D415A46);
+        }
+        assertRejected(file, "Not a maze file");
+    }
+
+    @Test
+    public void next_rejectsUnknownVersion() throws Exception {
+        File file = writeMazes(2, 2, 1);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(4);
+            raw.writeShort(MazeFileFormat.VERSION + 1);
+        }
+        assertRejected(file, "Unsupported maze file version");
+    }
+
+    private static void assertRejected(File file, String message) {
+        try {
+            MazeFileReader.load(file);
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+            return;
+        }
+        throw new AssertionError("Expected an IOException");
+    }
+
+    private static void assertSameWalls(MazeGrid expected, MazeGrid actual) {
+        assertEquals(expected.getCellCount(), actual.getCellCount());
+        for (int cell = 0; cell < expected.getCellCount(); cell++) {
+            assertEquals("cell " + cell, expected.getWallBits(cell), actual.getWallBits(cell));
+        }
+    }
+
+    private static File writeMazes(int rows, int columns, int count) throws IOException {
+        File file = createTempFile();
+        try (MazeFileWriter writer = new MazeFileWriter(new FileOutputStream(file))) {
+            for (int seed = 0; seed < count; seed++) {
+                MazeGrid grid = new MazeGrid(rows, columns);
+                MazeAlgorithm.PRIM.generate(grid, new Random(seed));
+                writer.writeMaze(new MazeFileHeader(rows, columns, seed, MazeAlgorithm.PRIM), grid);
+            }
+        }
+        return file;
+    }
+
+    private static void truncate(File file, long bytes) throws IOException {
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(raw.length() - bytes);
+        }
+    }
+
+    private static File createTempFile() throws IOException {
+        File file = File.createTempFile("maze", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+}
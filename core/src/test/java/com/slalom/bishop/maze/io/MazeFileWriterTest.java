@@ -0,0 +1,79 @@
+package com.slalom.bishop.maze.io;
+
+import com.slalom.bishop.maze.EllerGenerator;
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MazeFileWriterTest {
+
+    @Test
+    public void streamedEller_matchesGridThenWrite() throws Exception {
+        int[][] sizes = {{1, 1}, {1, 9}, {9, 1}, {7, 13}, {40, 33}};
+        for (int[] size : sizes) {
+            for (long seed = 0; seed < 5; seed++) {
+                MazeFileHeader header = new MazeFileHeader(size[0], size[1], seed, MazeAlgorithm.ELLER);
+
+                MazeGrid grid = new MazeGrid(size[0], size[1]);
+                MazeAlgorithm.ELLER.generate(grid, new Random(seed));
+                ByteArrayOutputStream fromGrid = new ByteArrayOutputStream();
+                try (MazeFileWriter writer = new MazeFileWriter(fromGrid)) {
+                    writer.writeMaze(header, grid);
+                }
+
+                ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+                try (MazeFileWriter writer = new MazeFileWriter(streamed)) {
+                    writer.writeMaze(header, new EllerGenerator(size[0], size[1], new Random(seed)));
+                }
+
+                assertEquals(MazeFileFormat.HEADER_SIZE + header.getBodySize(), streamed.size());
+                assertArrayEquals(fromGrid.toByteArray(), streamed.toByteArray());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void streamedEller_rejectsMismatchedHeader() throws Exception {
+        try (MazeFileWriter writer = new MazeFileWriter(new ByteArrayOutputStream())) {
+            writer.writeMaze(new MazeFileHeader(4, 5, 0, MazeAlgorithm.ELLER), new EllerGenerator(5, 5, new Random(0)));
+        }
+    }
+
+    @Test
+    public void header_holdsMoreCellsThanAGrid() throws Exception {
+        long rows = 3L * Integer.MAX_VALUE;
+        MazeFileHeader header = new MazeFileHeader(rows, 3, 7, MazeAlgorithm.ELLER);
+        assertEquals(9L * Integer.MAX_VALUE, header.getCellCount());
+        assertEquals((9L * Integer.MAX_VALUE + 3) / 4, header.getBodySize());
+        assertFalse(header.isGridSized());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (MazeFileWriter writer = new MazeFileWriter(output)) {
+            writer.beginMaze(header);
+            writer.flush();
+            ByteBuffer written = ByteBuffer.wrap(output.toByteArray());
+            assertEquals(MazeFileFormat.MAGIC, written.getInt());
+            assertEquals(MazeFileFormat.VERSION, written.getShort());
+            assertEquals(MazeAlgorithm.ELLER.ordinal(), written.get());
+            written.get();
+            assertEquals(rows, written.getLong());
+            assertEquals(3, written.getInt());
+            written.getInt();
+            assertEquals(7, written.getLong());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void header_rejectsOverflowingCellCount() {
+        new MazeFileHeader(Long.MAX_VALUE / 2, 3, 0, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.slalom.bishop.maze.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameStatsTest {
+    private static final long FRAME = FrameStats.DEFAULT_FRAME_INTERVAL_NANOS;
+
+    @Test
+    public void timingRing_keepsMostRecentWindow() throws Exception {
+        TimingRing ring = new TimingRing(4);
+        assertEquals(0, ring.getPercentile(50));
+        for (long value = 1; value <= 6; value++) {
+            ring.add(value * 10);
+        }
+
+        assertEquals(4, ring.getSize());
+        assertEquals(30, ring.getPercentile(0));
+        assertEquals(40, ring.getPercentile(50));
+        assertEquals(60, ring.getMax());
+        assertEquals(45.0, ring.getMean(), 1e-9);
+    }
+
+    @Test
+    public void frameGaps_countAsSkippedFrames() throws Exception {
+        FrameStats stats = new FrameStats(8);
+        long time = 1000;
+        long[] gaps = {1, 1, 2, 1, 4, 7, 1};
+        for (long gap : gaps) {
+            stats.recordFrame(time);
+            time += gap * FRAME;
+        }
+        stats.recordFrame(time);
+
+        assertEquals(gaps.length + 1, stats.getFrameCount());
+        assertEquals(1 + 3 + 6, stats.getSkippedFrames());
+        assertEquals(3, stats.getJankyFrames());
+        assertEquals(4, stats.getHistogramCount(0));
+        assertEquals(1, stats.getHistogramCount(1));
+        assertEquals(1, stats.getHistogramCount(3));
+        assertEquals(1, stats.getHistogramCount(9));
+        assertEquals(7 * FRAME, stats.getFrameIntervals().getMax());
+    }
+
+    @Test
+    public void reset_doesNotCountPauseAsSkipped() throws Exception {
+        FrameStats stats = new FrameStats();
+        stats.recordFrame(FRAME);
+        stats.recordDraw(1000);
+        stats.reset();
+        stats.recordFrame(100 * FRAME);
+        stats.recordFrame(101 * FRAME);
+
+        assertEquals(0, stats.getSkippedFrames());
+        assertEquals(0, stats.getDrawCount());
+        assertEquals(1, stats.getFrameIntervals().getSize());
+    }
+}
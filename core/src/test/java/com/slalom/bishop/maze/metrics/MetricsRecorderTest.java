@@ -0,0 +1,66 @@
+package com.slalom.bishop.maze.metrics;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.solver.SolverStrategy;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRecorderTest {
+
+    @Test
+    public void measureGeneration_matchesBatchGeneration() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid measuredGrid = new MazeGrid(24, 20);
+            RunMetrics metrics = MetricsRecorder.measureGeneration(algorithm, measuredGrid, new Random(11));
+            MazeGrid batchGrid = new MazeGrid(24, 20);
+            algorithm.generate(batchGrid, new Random(11));
+            for (int cell = 0; cell < batchGrid.getCellCount(); cell++) {
+                assertEquals(algorithm.name(), batchGrid.getWallBits(cell), measuredGrid.getWallBits(cell));
+            }
+
+            assertEquals(algorithm.name(), metrics.getName());
+            assertEquals(RunMetrics.Phase.GENERATION, metrics.getPhase());
+            assertEquals(batchGrid.getCellCount(), metrics.getVisitedCells());
+            assertTrue(algorithm.name(), metrics.getSteps() > 0 && metrics.getElapsedNanos() > 0);
+        }
+    }
+
+    @Test
+    public void backtrackPeakFrontier_isDeepestStack() throws Exception {
+        MazeGrid grid = new MazeGrid(1, 30);
+        RunMetrics metrics = MetricsRecorder.measureGeneration(MazeAlgorithm.BACKTRACK, grid, new Random(1));
+        assertTrue(metrics.getPeakFrontier() > 0 && metrics.getPeakFrontier() < 30);
+    }
+
+    @Test
+    public void measureSolve_reportsSolverCounts() throws Exception {
+        MazeGrid grid = new MazeGrid(30, 40);
+        MazeAlgorithm.PRIM.generate(grid, new Random(3));
+        for (SolverStrategy strategy : SolverStrategy.values()) {
+            RunMetrics metrics = MetricsRecorder.measureSolve(strategy, grid, 0, grid.getCellCount() - 1);
+
+            assertEquals(RunMetrics.Phase.SOLVING, metrics.getPhase());
+            assertTrue(strategy.name(), metrics.getVisitedCells() > 0 && metrics.getVisitedCells() <= grid.getCellCount());
+            assertEquals(metrics.getVisitedCells(), metrics.getSteps());
+            assertTrue(strategy.name(), metrics.getPeakFrontier() > 0);
+        }
+    }
+
+    @Test
+    public void toJson_writesOneObjectPerRun() throws Exception {
+        RunMetrics metrics = new RunMetrics(RunMetrics.Phase.SOLVING, "A_STAR", 2, 3, 2000000, 6, 4, 6, RunMetrics.UNKNOWN);
+        assertEquals("{\"phase\": \"SOLVING\", \"name\": \"A_STAR\", \"rows\": 2, \"columns\": 3, \"elapsedNanos\": 2000000, "
+                + "\"steps\": 6, \"stepsPerSecond\": 3000.0, \"peakFrontier\": 4, \"visitedCells\": 6, \"allocatedBytes\": null}",
+                metrics.toJson());
+        assertEquals("[\n  " + metrics.toJson() + ",\n  " + metrics.toJson() + "\n]",
+                RunMetrics.toJson(Arrays.asList(metrics, metrics)));
+        assertEquals("[]", RunMetrics.toJson(Arrays.<RunMetrics>asList()));
+    }
+}
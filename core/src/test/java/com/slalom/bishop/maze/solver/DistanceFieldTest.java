@@ -0,0 +1,73 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.storage.StorageAllocator;
+import com.slalom.bishop.maze.storage.StorageMode;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DistanceFieldTest {
+    @Test
+    public void distances_matchBreadthFirst() throws Exception {
+        MazeGrid grid = new MazeGrid(20, 30);
+        MazeAlgorithm.WILSON.generate(grid, new Random(4));
+        DistanceField field = DistanceField.compute(grid, 37);
+
+        assertEquals(grid.getCellCount(), field.getReachableCells());
+        for (int cell = 0; cell < grid.getCellCount(); cell++) {
+            assertEquals(new BreadthFirstSolver().solve(grid, 37, cell).getLength(), field.getDistance(cell));
+        }
+        assertEquals(field.getMaxDistance(), field.getDistance(field.getFarthestCell()));
+    }
+
+    @Test
+    public void diameter_isLongestShortestPath() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid grid = new MazeGrid(12, 15);
+            algorithm.generate(grid, new Random(8));
+            int longest = 0;
+            for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                longest = Math.max(longest, DistanceField.compute(grid, cell).getMaxDistance());
+            }
+            DistanceField diameter = DistanceField.findDiameter(grid);
+
+            assertEquals(algorithm.name(), longest, diameter.getMaxDistance());
+            assertEquals(longest, diameter.getDistance(diameter.getFarthestCell()));
+        }
+    }
+
+    @Test
+    public void walledOffCells_areUnreachable() throws Exception {
+        MazeGrid grid = new MazeGrid(3, 3);
+        grid.removeWall(0, MazeGrid.RIGHT);
+        DistanceField field = DistanceField.compute(grid, 0);
+
+        assertEquals(2, field.getReachableCells());
+        assertEquals(1, field.getMaxDistance());
+        assertEquals(1, field.getFarthestCell());
+        assertEquals(DistanceField.UNREACHABLE, field.getDistance(8));
+    }
+
+    @Test
+    public void everyStorageMode_givesSameDistances() throws Exception {
+        MazeGrid heapGrid = new MazeGrid(25, 18);
+        MazeAlgorithm.PRIM.generate(heapGrid, new Random(6));
+        DistanceField expected = DistanceField.findDiameter(heapGrid);
+        for (StorageMode mode : StorageMode.values()) {
+            MazeGrid grid = new MazeGrid(25, 18, StorageAllocator.forMode(mode));
+            MazeAlgorithm.PRIM.generate(grid, new Random(6));
+            DistanceField field = DistanceField.findDiameter(grid);
+
+            assertEquals(mode.name(), expected.getSourceCell(), field.getSourceCell());
+            assertEquals(mode.name(), expected.getFarthestCell(), field.getFarthestCell());
+            for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                assertEquals(mode.name(), expected.getDistance(cell), field.getDistance(cell));
+            }
+        }
+    }
+}
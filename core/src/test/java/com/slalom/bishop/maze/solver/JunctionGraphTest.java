@@ -0,0 +1,61 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JunctionGraphTest {
+    private static final int PAIRS = 200;
+
+    @Test
+    public void perfectMaze_matchesBreadthFirst() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid grid = new MazeGrid(30, 40);
+            algorithm.generate(grid, new Random(3));
+            assertSameAsBreadthFirst(grid, new Random(5));
+        }
+    }
+
+    @Test
+    public void mazeWithLoopsAndIslands_matchesBreadthFirst() throws Exception {
+        Random random = new Random(9);
+        MazeGrid grid = new MazeGrid(30, 40);
+        MazeAlgorithm.KRUSKAL.generate(grid, random);
+        for (int i = 0; i < 200; i++) {
+            grid.removeWall(random.nextInt(grid.getCellCount()), random.nextInt(4));
+        }
+        for (int i = 0; i < 60; i++) {
+            grid.setWallBits(random.nextInt(grid.getCellCount()), MazeGrid.WALL_RIGHT | MazeGrid.WALL_BOTTOM);
+        }
+        assertSameAsBreadthFirst(grid, random);
+    }
+
+    private static void assertSameAsBreadthFirst(MazeGrid grid, Random random) {
+        JunctionGraph graph = new JunctionGraph(grid);
+        assertTrue(graph.getNodeCount() < grid.getCellCount());
+        for (int i = 0; i < PAIRS; i++) {
+            int startCell = random.nextInt(grid.getCellCount());
+            int goalCell = random.nextInt(grid.getCellCount());
+            MazeSolution expected = new BreadthFirstSolver().solve(grid, startCell, goalCell);
+            MazeSolution solution = graph.solve(grid, startCell, goalCell);
+
+            assertEquals(expected.getLength(), solution.getLength());
+            assertEquals(expected.hasPath() ? expected.getLength() : -1, graph.getDistance(startCell, goalCell));
+            if (solution.hasPath()) {
+                int[] path = solution.getPath();
+                assertEquals(startCell, path[0]);
+                assertEquals(goalCell, path[path.length - 1]);
+                for (int step = 1; step < path.length; step++) {
+                    int direction = grid.getDirection(path[step - 1], path[step]);
+                    assertTrue(direction >= 0 && grid.isOpen(path[step - 1], direction));
+                }
+            }
+        }
+    }
+}
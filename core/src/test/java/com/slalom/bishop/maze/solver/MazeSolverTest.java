@@ -0,0 +1,91 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MazeSolverTest {
+    private static final MazeSolver[] SOLVERS = {new BreadthFirstSolver(), new AStarSolver(), new BidirectionalSolver()};
+    private static final int PAIRS = 100;
+
+    @Test
+    public void perfectMazes_matchBreadthFirst() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid grid = new MazeGrid(25, 31);
+            algorithm.generate(grid, new Random(6));
+            assertShortestPaths(grid, new Random(7));
+        }
+    }
+
+    @Test
+    public void mazeWithLoops_matchesBreadthFirst() throws Exception {
+        Random random = new Random(2);
+        MazeGrid grid = new MazeGrid(30, 40);
+        MazeAlgorithm.BACKTRACK.generate(grid, random);
+        for (int i = 0; i < 300; i++) {
+            grid.removeWall(random.nextInt(grid.getCellCount()), random.nextInt(4));
+        }
+        assertShortestPaths(grid, random);
+    }
+
+    @Test
+    public void startIsGoal_givesSingleCellPath() throws Exception {
+        MazeGrid grid = new MazeGrid(10, 10);
+        MazeAlgorithm.PRIM.generate(grid, new Random(1));
+        for (MazeSolver solver : SOLVERS) {
+            MazeSolution solution = solver.solve(grid, 34, 34);
+            assertTrue(solver.getClass().getSimpleName(), solution.hasPath());
+            assertEquals(0, solution.getLength());
+            assertEquals(34, solution.getPath()[0]);
+        }
+    }
+
+    @Test
+    public void walledOffGoal_hasNoPath() throws Exception {
+        MazeGrid grid = new MazeGrid(6, 6);
+        MazeAlgorithm.KRUSKAL.generate(grid, new Random(3));
+        int goalCell = grid.getCell(3, 3);
+        grid.setWallBits(goalCell, MazeGrid.WALL_RIGHT | MazeGrid.WALL_BOTTOM);
+        int leftCell = grid.getAdjacentCell(goalCell, MazeGrid.LEFT);
+        grid.setWallBits(leftCell, grid.getWallBits(leftCell) | MazeGrid.WALL_RIGHT);
+        int topCell = grid.getAdjacentCell(goalCell, MazeGrid.TOP);
+        grid.setWallBits(topCell, grid.getWallBits(topCell) | MazeGrid.WALL_BOTTOM);
+        for (MazeSolver solver : SOLVERS) {
+            MazeSolution solution = solver.solve(grid, 0, goalCell);
+            assertFalse(solver.getClass().getSimpleName(), solution.hasPath());
+            assertEquals(-1, solution.getLength());
+            assertFalse(solver.solve(grid, goalCell, 0).hasPath());
+        }
+    }
+
+    private static void assertShortestPaths(MazeGrid grid, Random random) {
+        for (int i = 0; i < PAIRS; i++) {
+            int startCell = random.nextInt(grid.getCellCount());
+            int goalCell = random.nextInt(grid.getCellCount());
+            int distance = DistanceField.compute(grid, startCell).getDistance(goalCell);
+            for (MazeSolver solver : SOLVERS) {
+                MazeSolution solution = solver.solve(grid, startCell, goalCell);
+                assertEquals(solver.getClass().getSimpleName(), distance, solution.getLength());
+                if (solution.hasPath()) {
+                    assertOpenWalk(grid, solution.getPath(), startCell, goalCell);
+                }
+            }
+        }
+    }
+
+    static void assertOpenWalk(MazeGrid grid, int[] path, int startCell, int goalCell) {
+        assertEquals(startCell, path[0]);
+        assertEquals(goalCell, path[path.length - 1]);
+        for (int step = 1; step < path.length; step++) {
+            int direction = grid.getDirection(path[step - 1], path[step]);
+            assertTrue(direction >= 0 && grid.isOpen(path[step - 1], direction));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelBreadthFirstSolverTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    // A threshold of one splits every level across the pool, so the LevelTasks always run
+    private final ParallelBreadthFirstSolver solver = new ParallelBreadthFirstSolver(POOL, 1);
+
+    @Test
+    public void seededMazes_matchBreadthFirst() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            for (long seed = 0; seed < 3; seed++) {
+                Random random = new Random(seed);
+                MazeGrid grid = new MazeGrid(28, 35);
+                algorithm.generate(grid, random);
+                for (int i = 0; i < 20; i++) {
+                    assertSameAsBreadthFirst(grid, random.nextInt(grid.getCellCount()), random.nextInt(grid.getCellCount()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mazeWithLoops_matchesBreadthFirst() throws Exception {
+        Random random = new Random(12);
+        MazeGrid grid = new MazeGrid(40, 40);
+        MazeAlgorithm.PRIM.generate(grid, random);
+        for (int i = 0; i < 400; i++) {
+            grid.removeWall(random.nextInt(grid.getCellCount()), random.nextInt(4));
+        }
+        assertSameAsBreadthFirst(grid, 0, grid.getCellCount() - 1);
+        assertSameAsBreadthFirst(grid, grid.getCell(20, 20), grid.getCell(0, 39));
+    }
+
+    @Test
+    public void defaultThreshold_matchesBreadthFirst() throws Exception {
+        MazeGrid grid = new MazeGrid(60, 60);
+        MazeAlgorithm.KRUSKAL.generate(grid, new Random(5));
+        MazeSolution expected = new BreadthFirstSolver().solve(grid, 0, grid.getCellCount() - 1);
+        assertEquals(expected.getLength(), new ParallelBreadthFirstSolver(POOL).solve(grid, 0, grid.getCellCount() - 1).getLength());
+    }
+
+    @Test
+    public void startIsGoal_givesSingleCellPath() throws Exception {
+        MazeGrid grid = new MazeGrid(10, 10);
+        MazeAlgorithm.BACKTRACK.generate(grid, new Random(1));
+        MazeSolution solution = solver.solve(grid, 45, 45);
+        assertTrue(solution.hasPath());
+        assertEquals(0, solution.getLength());
+        assertEquals(1, solution.getVisitedCells());
+    }
+
+    @Test
+    public void unreachableGoal_hasNoPath() throws Exception {
+        MazeGrid grid = new MazeGrid(12, 12);
+        MazeAlgorithm.WILSON.generate(grid, new Random(2));
+        for (int row = 0; row < grid.getRows(); row++) {
+            int cell = grid.getCell(row, 5);
+            grid.setWallBits(cell, grid.getWallBits(cell) | MazeGrid.WALL_RIGHT);
+        }
+        MazeSolution solution = solver.solve(grid, 0, grid.getCellCount() - 1);
+        assertFalse(solution.hasPath());
+        assertEquals(-1, solution.getLength());
+        assertEquals(DistanceField.compute(grid, 0).getReachableCells(), solution.getVisitedCells());
+    }
+
+    private void assertSameAsBreadthFirst(MazeGrid grid, int startCell, int goalCell) {
+        MazeSolution expected = new BreadthFirstSolver().solve(grid, startCell, goalCell);
+        MazeSolution solution = solver.solve(grid, startCell, goalCell);
+        assertEquals(expected.getLength(), solution.getLength());
+        if (solution.hasPath()) {
+            MazeSolverTest.assertOpenWalk(grid, solution.getPath(), startCell, goalCell);
+        }
+    }
+}
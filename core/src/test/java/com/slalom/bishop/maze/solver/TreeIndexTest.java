@@ -0,0 +1,60 @@
+package com.slalom.bishop.maze.solver;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TreeIndexTest {
+    private static final int PAIRS = 300;
+
+    @Test
+    public void perfectMaze_matchesBreadthFirst() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid grid = new MazeGrid(30, 40);
+            algorithm.generate(grid, new Random(3));
+            TreeIndex index = new TreeIndex(grid);
+            assertEquals(1, index.getTreeCount());
+
+            Random random = new Random(5);
+            for (int i = 0; i < PAIRS; i++) {
+                int startCell = random.nextInt(grid.getCellCount());
+                int goalCell = random.nextInt(grid.getCellCount());
+                MazeSolution expected = new BreadthFirstSolver().solve(grid, startCell, goalCell);
+
+                assertEquals(algorithm.name(), expected.getLength(), index.getDistance(startCell, goalCell));
+                assertArrayEquals(expected.getPath(), index.solve(grid, startCell, goalCell).getPath());
+            }
+        }
+    }
+
+    @Test
+    public void walledOffParts_haveNoPath() throws Exception {
+        MazeGrid grid = new MazeGrid(2, 3);
+        grid.removeWall(0, MazeGrid.RIGHT);
+        grid.removeWall(1, MazeGrid.BOTTOM);
+        grid.removeWall(2, MazeGrid.BOTTOM);
+        TreeIndex index = new TreeIndex(grid);
+
+        assertEquals(3, index.getTreeCount());
+        assertEquals(2, index.getDistance(0, 4));
+        assertEquals(-1, index.getDistance(0, 5));
+        assertEquals(-1, index.getDistance(3, 5));
+        assertEquals(false, index.solve(grid, 4, 2).hasPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mazeWithLoop_isRejected() throws Exception {
+        MazeGrid grid = new MazeGrid(2, 2);
+        grid.removeWall(0, MazeGrid.RIGHT);
+        grid.removeWall(0, MazeGrid.BOTTOM);
+        grid.removeWall(3, MazeGrid.TOP);
+        grid.removeWall(3, MazeGrid.LEFT);
+        new TreeIndex(grid);
+    }
+}
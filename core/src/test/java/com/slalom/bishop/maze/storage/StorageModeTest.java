@@ -0,0 +1,72 @@
+package com.slalom.bishop.maze.storage;
+
+import com.slalom.bishop.maze.MazeGrid;
+import com.slalom.bishop.maze.MazeOptions.MazeAlgorithm;
+import com.slalom.bishop.maze.solver.MazeSolution;
+import com.slalom.bishop.maze.solver.SolverStrategy;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class StorageModeTest {
+    // 64-int chunks, so a 23x29 maze's solver arrays span 11 chunks with a partial last one
+    private static final int SMALL_CHUNK_SHIFT = 6;
+    private static final int ROWS = 23, COLUMNS = 29;
+
+    @Test
+    public void everyMode_generatesAndSolvesLikeHeap() throws Exception {
+        for (MazeAlgorithm algorithm : MazeAlgorithm.values()) {
+            MazeGrid heapGrid = generate(algorithm, StorageAllocator.HEAP);
+            for (StorageAllocator allocator : getAllocators()) {
+                String mode = algorithm.name() + " " + allocator.getMode();
+                MazeGrid grid = generate(algorithm, allocator);
+                for (int cell = 0; cell < grid.getCellCount(); cell++) {
+                    assertEquals(mode, heapGrid.getWallBits(cell), grid.getWallBits(cell));
+                }
+                for (SolverStrategy strategy : SolverStrategy.values()) {
+                    MazeSolution expected = strategy.createSolver().solve(heapGrid, 0, heapGrid.getCellCount() - 1);
+                    MazeSolution solution = strategy.createSolver().solve(grid, 0, grid.getCellCount() - 1);
+                    assertArrayEquals(mode + " " + strategy.name(), expected.getPath(), solution.getPath());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bufferInts_crossChunkBoundaries() throws Exception {
+        for (StorageAllocator allocator : getAllocators()) {
+            for (int size : new int[]{1, 63, 64, 65, 128, 1000}) {
+                IntStorage ints = allocator.allocateInts(size);
+                assertEquals(size, ints.size());
+                ints.fill(-1);
+                for (int i = 0; i < size; i++) {
+                    assertEquals(-1, ints.get(i));
+                    ints.set(i, i * 7);
+                }
+                for (int i = 0; i < size; i++) {
+                    assertEquals(allocator.getMode().name(), i * 7, ints.get(i));
+                }
+            }
+        }
+    }
+
+    private static StorageAllocator[] getAllocators() {
+        StorageAllocator mapped = StorageAllocator.forMode(StorageMode.MAPPED);
+        return new StorageAllocator[]{
+                StorageAllocator.HEAP,
+                StorageAllocator.DIRECT,
+                mapped,
+                StorageAllocator.withIntChunkShift(StorageAllocator.DIRECT, SMALL_CHUNK_SHIFT),
+                StorageAllocator.withIntChunkShift(mapped, SMALL_CHUNK_SHIFT)};
+    }
+
+    private static MazeGrid generate(MazeAlgorithm algorithm, StorageAllocator allocator) {
+        MazeGrid grid = new MazeGrid(ROWS, COLUMNS, allocator);
+        algorithm.generate(grid, new Random(17));
+        return grid;
+    }
+}